@@ -0,0 +1,204 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * The Class JsonArrayIterator.
+ *
+ * Iterates over the elements of a JSON array, binding one element at a time from Jackson's streaming parser so that memory use does not grow with the array. The array is
+ * either the document itself or the value found at a JSON Pointer such as {@code /data}; everything before it is skipped without being bound and a {@code null} value is
+ * treated as an empty array. The iterator owns the input stream: it is closed once the end of the array has been read, or earlier by {@link #close()} to stop iterating.
+ * Read and binding failures during iteration are thrown as {@link UncheckedIOException}.
+ *
+ * @param <T> the element type
+ */
+public class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+    private final InputStream inputStream;
+    private final JsonParser parser;
+    private final ObjectReader reader;
+
+    private T nextElement;
+    private boolean hasNextElement;
+    private boolean closed;
+
+
+    /**
+     * Instantiates a new JSON array iterator over the array at the given pointer, binding elements with the default {@link JsonUtils} profile.
+     *
+     * @param inputStream the input stream
+     * @param pointer the JSON Pointer of the array, null or empty for the document itself
+     * @param type the element type
+     * @throws IOException if the stream cannot be read or the pointer does not lead to an array
+     */
+    public JsonArrayIterator(InputStream inputStream, String pointer, Class<T> type) throws IOException {
+        this(inputStream, pointer, JsonUtils.getDefaultProfile().getReader(type));
+    }
+
+
+    /**
+     * Instantiates a new JSON array iterator over the array at the given pointer, binding elements of a generic type with the default {@link JsonUtils} profile.
+     *
+     * @param inputStream the input stream
+     * @param pointer the JSON Pointer of the array, null or empty for the document itself
+     * @param type the element type
+     * @throws IOException if the stream cannot be read or the pointer does not lead to an array
+     */
+    public JsonArrayIterator(InputStream inputStream, String pointer, TypeReference<T> type) throws IOException {
+        this(inputStream, pointer, JsonUtils.getDefaultProfile().getReader(type));
+    }
+
+
+    private JsonArrayIterator(InputStream inputStream, String pointer, ObjectReader reader) throws IOException {
+        this.inputStream = inputStream;
+        this.reader = reader;
+        this.parser = reader.getFactory().createParser(inputStream);
+        try {
+            if (moveToArray(pointer == null ? JsonPointer.compile("") : JsonPointer.compile(pointer)) == JsonToken.VALUE_NULL) {
+                close();
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        if (hasNextElement) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+            // the reader consumes the element up to and including its last token
+            nextElement = reader.readValue(parser);
+            hasNextElement = true;
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = nextElement;
+        nextElement = null;
+        hasNextElement = false;
+        return element;
+    }
+
+
+    /**
+     * Returns a sequential stream over the remaining elements. Closing the stream closes this iterator.
+     *
+     * @return the stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false).onClose(this::close);
+    }
+
+
+    /**
+     * Stops the iteration and closes the underlying parser and input stream.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // the input stream is closed below regardless
+        }
+        StreamUtils.closeStreamQuietly(inputStream);
+    }
+
+
+    private JsonToken moveToArray(JsonPointer pointer) throws IOException {
+        JsonToken token = parser.nextToken();
+        JsonPointer remaining = pointer;
+        while (!remaining.matches()) {
+            if (token == JsonToken.START_OBJECT) {
+                String property = remaining.getMatchingProperty();
+                while (true) {
+                    token = parser.nextToken();
+                    if (token != JsonToken.FIELD_NAME) {
+                        throw notFound(pointer);
+                    }
+                    String name = parser.getCurrentName();
+                    token = parser.nextToken();
+                    if (property.equals(name)) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            } else if (token == JsonToken.START_ARRAY && remaining.mayMatchElement()) {
+                int index = remaining.getMatchingIndex();
+                for (int i = 0;; i++) {
+                    token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) {
+                        throw notFound(pointer);
+                    }
+                    if (i == index) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            } else {
+                throw notFound(pointer);
+            }
+            remaining = remaining.tail();
+        }
+        if (token != JsonToken.START_ARRAY && token != JsonToken.VALUE_NULL) {
+            throw JsonMappingException.from(parser, "Expected a JSON array at '" + pointer + "' but found " + token);
+        }
+        return token;
+    }
+
+
+    private JsonMappingException notFound(JsonPointer pointer) {
+        return JsonMappingException.from(parser, "No value found at JSON Pointer '" + pointer + "'");
+    }
+}
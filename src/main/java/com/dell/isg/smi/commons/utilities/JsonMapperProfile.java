@@ -0,0 +1,196 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * The Class JsonMapperProfile.
+ *
+ * A named, read-only Jackson configuration shared through {@link JsonUtils}. The profile keeps a private copy of the mapper it was created from, so later changes to
+ * that mapper do not leak in, and hands out {@link ObjectReader} and {@link ObjectWriter} instances, which are immutable and thread-safe. Readers and writers are
+ * built once per type and cached, so serializers and deserializers are resolved on the first call only.
+ */
+public final class JsonMapperProfile {
+    private final String name;
+    private final ObjectMapper mapper;
+    private final ConcurrentMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+
+    JsonMapperProfile(String name, ObjectMapper mapper) {
+        this.name = name;
+        this.mapper = mapper.copy();
+    }
+
+
+    /**
+     * Gets the profile name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+
+    /**
+     * Gets the reader for a class.
+     *
+     * @param type the type
+     * @return the reader
+     */
+    public ObjectReader getReader(Class<?> type) {
+        return getReader(mapper.constructType(type));
+    }
+
+
+    /**
+     * Gets the reader for a generic type.
+     *
+     * @param type the type reference
+     * @return the reader
+     */
+    public ObjectReader getReader(TypeReference<?> type) {
+        return getReader(mapper.getTypeFactory().constructType(type));
+    }
+
+
+    /**
+     * Gets the reader for a resolved type.
+     *
+     * @param type the type
+     * @return the reader
+     */
+    public ObjectReader getReader(JavaType type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            ObjectReader created = mapper.readerFor(type);
+            reader = readers.putIfAbsent(type, created);
+            if (reader == null) {
+                reader = created;
+            }
+        }
+        return reader;
+    }
+
+
+    /**
+     * Gets the writer for a class.
+     *
+     * @param type the type
+     * @return the writer
+     */
+    public ObjectWriter getWriter(Class<?> type) {
+        return getWriter(mapper.constructType(type));
+    }
+
+
+    /**
+     * Gets the writer for a generic type, for values whose declared type matters, such as lists of polymorphic elements.
+     *
+     * @param type the type reference
+     * @return the writer
+     */
+    public ObjectWriter getWriter(TypeReference<?> type) {
+        return getWriter(mapper.getTypeFactory().constructType(type));
+    }
+
+
+    /**
+     * Gets the writer for a resolved type.
+     *
+     * @param type the type
+     * @return the writer
+     */
+    public ObjectWriter getWriter(JavaType type) {
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            ObjectWriter created = mapper.writerFor(type);
+            writer = writers.putIfAbsent(type, created);
+            if (writer == null) {
+                writer = created;
+            }
+        }
+        return writer;
+    }
+
+
+    /**
+     * Reads a value of a class from json.
+     *
+     * @param <T> the generic type
+     * @param content the content
+     * @param type the type
+     * @return the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public <T> T read(String content, Class<T> type) throws IOException {
+        return getReader(type).readValue(content);
+    }
+
+
+    /**
+     * Reads a value of a generic type from json.
+     *
+     * @param <T> the generic type
+     * @param content the content
+     * @param type the type reference
+     * @return the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public <T> T read(String content, TypeReference<T> type) throws IOException {
+        return getReader(type).readValue(content);
+    }
+
+
+    /**
+     * Writes a value as json, using the writer of its runtime class.
+     *
+     * @param value the value
+     * @return the json
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public String write(Object value) throws IOException {
+        return getWriter(value.getClass()).writeValueAsString(value);
+    }
+
+
+    /**
+     * Builds the reader and writer of a type ahead of use.
+     *
+     * @param type the type
+     * @return true, if the type can be both serialized and deserialized
+     */
+    boolean warmUp(Class<?> type) {
+        JavaType javaType = mapper.constructType(type);
+        getReader(javaType);
+        getWriter(javaType);
+        return mapper.canSerialize(type) && mapper.canDeserialize(javaType);
+    }
+
+
+    /**
+     * Gets the number of cached readers and writers.
+     *
+     * @return the size
+     */
+    public int size() {
+        return readers.size() + writers.size();
+    }
+
+
+    @Override
+    public String toString() {
+        return "JsonMapperProfile [name=" + name + ", readers=" + readers.size() + ", writers=" + writers.size() + "]";
+    }
+}
@@ -4,19 +4,39 @@
 package com.dell.isg.smi.commons.utilities;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ws.rs.core.Response;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 public final class JsonUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonUtils.class.getName());
 
-    private static ObjectMapper objectMapper = new ObjectMapper();
+    public static final String DEFAULT_PROFILE = "default";
+
+    public static final int DEFAULT_LOGGED_BODY_LIMIT = 1024;
+
+    private static final JsonMapperProfile defaultProfile = new JsonMapperProfile(DEFAULT_PROFILE, new ObjectMapper());
+
+    private static final ConcurrentMap<String, JsonMapperProfile> profiles = new ConcurrentHashMap<>();
+
+    private static volatile int loggedBodyLimit = DEFAULT_LOGGED_BODY_LIMIT;
+
+    static {
+        profiles.put(DEFAULT_PROFILE, defaultProfile);
+    }
 
 
     private JsonUtils() {
@@ -25,7 +45,17 @@ public final class JsonUtils {
 
     public static final <T> T readFromString(String content, Class<T> classType) {
         try {
-            return objectMapper.readValue(content, classType);
+            return defaultProfile.read(content, classType);
+        } catch (IOException ex) {
+            logger.error("readFromString error: {}", content, ex);
+            return null;
+        }
+    }
+
+
+    public static final <T> T readFromString(String content, TypeReference<T> type) {
+        try {
+            return defaultProfile.read(content, type);
         } catch (IOException ex) {
             logger.error("readFromString error: {}", content, ex);
             return null;
@@ -33,6 +63,62 @@ public final class JsonUtils {
     }
 
 
+    /**
+     * Reads a value directly from a json stream, which is not closed. A parse failure is logged with its byte offset.
+     *
+     * @param <T> the generic type
+     * @param content the content
+     * @param classType the class type
+     * @return the value, or null if the json could not be read
+     */
+    public static final <T> T readFromStream(InputStream content, Class<T> classType) {
+        return read(content, defaultProfile.getReader(classType));
+    }
+
+
+    /**
+     * Reads a value of a generic type directly from a json stream, which is not closed. A parse failure is logged with its byte offset.
+     *
+     * @param <T> the generic type
+     * @param content the content
+     * @param type the type
+     * @return the value, or null if the json could not be read
+     */
+    public static final <T> T readFromStream(InputStream content, TypeReference<T> type) {
+        return read(content, defaultProfile.getReader(type));
+    }
+
+
+    /**
+     * Iterates over the elements of a json array, binding them one at a time. The stream is closed when the iterator is exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param content the content
+     * @param pointer the JSON Pointer of the array, such as /data, or null for the document itself
+     * @param elementClass the element class
+     * @return the element iterator
+     * @throws IOException if the stream cannot be read or the pointer does not lead to an array
+     */
+    public static final <T> JsonArrayIterator<T> iterateFromStream(InputStream content, String pointer, Class<T> elementClass) throws IOException {
+        return new JsonArrayIterator<T>(content, pointer, elementClass);
+    }
+
+
+    /**
+     * Iterates over the elements of a json array of a generic element type, binding them one at a time. The stream is closed when the iterator is exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param content the content
+     * @param pointer the JSON Pointer of the array, such as /data, or null for the document itself
+     * @param elementType the element type
+     * @return the element iterator
+     * @throws IOException if the stream cannot be read or the pointer does not lead to an array
+     */
+    public static final <T> JsonArrayIterator<T> iterateFromStream(InputStream content, String pointer, TypeReference<T> elementType) throws IOException {
+        return new JsonArrayIterator<T>(content, pointer, elementType);
+    }
+
+
     public static final <T> String writeToString(T value) {
 
         if (value == null) {
@@ -40,7 +126,7 @@ public final class JsonUtils {
         }
 
         try {
-            return objectMapper.writeValueAsString(value);
+            return defaultProfile.write(value);
         } catch (IOException ex) {
             logger.error("writeToString error: {}", value, ex);
         }
@@ -49,21 +135,166 @@ public final class JsonUtils {
     }
 
 
+    /**
+     * Registers a named mapper profile, typically at startup. The profile takes a copy of the mapper, so the mapper can no longer change its behavior.
+     *
+     * @param name the profile name
+     * @param mapper the configured mapper
+     * @return the profile
+     * @throws IllegalStateException if a profile with that name already exists
+     */
+    public static JsonMapperProfile registerProfile(String name, ObjectMapper mapper) {
+        JsonMapperProfile profile = new JsonMapperProfile(name, mapper);
+        if (profiles.putIfAbsent(name, profile) != null) {
+            throw new IllegalStateException("Json mapper profile already registered: " + name);
+        }
+        return profile;
+    }
+
+
+    /**
+     * Gets a named mapper profile.
+     *
+     * @param name the profile name
+     * @return the profile
+     * @throws IllegalArgumentException if no profile with that name exists
+     */
+    public static JsonMapperProfile getProfile(String name) {
+        JsonMapperProfile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown json mapper profile: " + name);
+        }
+        return profile;
+    }
+
+
+    /**
+     * Gets the profile used by the static read and write methods.
+     *
+     * @return the default profile
+     */
+    public static JsonMapperProfile getDefaultProfile() {
+        return defaultProfile;
+    }
+
+
+    /**
+     * Resolves and caches the reader and writer of a type, so the first real request does not pay for the introspection.
+     *
+     * @param type the type
+     * @return true, if both could be resolved
+     */
+    static boolean warmUp(Class<?> type) {
+        return defaultProfile.warmUp(type);
+    }
+
+
+    /**
+     * Sets how many leading bytes of a response body are logged at debug level. The body is parsed as it is read and never held in full.
+     *
+     * @param limit the number of bytes, 0 to log no body
+     */
+    public static void setLoggedBodyLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Logged body limit must not be negative: " + limit);
+        }
+        loggedBodyLimit = limit;
+    }
+
+
+    /**
+     * Converts a json response entity, parsing it straight from the entity stream. At debug level only the first bytes of the body are logged, see
+     * {@link #setLoggedBodyLimit(int)}.
+     *
+     * @param <T> the generic type
+     * @param clazz the clazz
+     * @param response the response
+     * @return the object, or null if the entity could not be read
+     */
     public static final <T> T convertJsonResponseToObject(Class<T> clazz, Response response) {
+        return convertJsonResponseToObject(response, defaultProfile.getReader(clazz));
+    }
+
+
+    /**
+     * Converts a json response entity of a generic type, parsing it straight from the entity stream.
+     *
+     * @param <T> the generic type
+     * @param type the type
+     * @param response the response
+     * @return the object, or null if the entity could not be read
+     */
+    public static final <T> T convertJsonResponseToObject(TypeReference<T> type, Response response) {
+        return convertJsonResponseToObject(response, defaultProfile.getReader(type));
+    }
+
+
+    /**
+     * Iterates over the elements of a json array in a response entity, binding them one at a time from the entity stream. The entity is closed when the iterator is
+     * exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param elementClass the element class
+     * @param response the response
+     * @param pointer the JSON Pointer of the array, such as /data, or null for the entity itself
+     * @return the element iterator
+     * @throws IOException if the entity cannot be read or the pointer does not lead to an array
+     */
+    public static final <T> JsonArrayIterator<T> iterateJsonResponse(Class<T> elementClass, Response response, String pointer) throws IOException {
+        return new JsonArrayIterator<T>(response.readEntity(InputStream.class), pointer, elementClass);
+    }
+
+
+    /**
+     * Iterates over the elements of a json array of a generic element type in a response entity, binding them one at a time from the entity stream. The entity is closed
+     * when the iterator is exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param elementType the element type
+     * @param response the response
+     * @param pointer the JSON Pointer of the array, such as /data, or null for the entity itself
+     * @return the element iterator
+     * @throws IOException if the entity cannot be read or the pointer does not lead to an array
+     */
+    public static final <T> JsonArrayIterator<T> iterateJsonResponse(TypeReference<T> elementType, Response response, String pointer) throws IOException {
+        return new JsonArrayIterator<T>(response.readEntity(InputStream.class), pointer, elementType);
+    }
+
+
+    private static <T> T convertJsonResponseToObject(Response response, ObjectReader reader) {
         logger.trace("convertJsonResponseToObject() entered");
-        T returnObject = null;
-        ObjectMapper mapper = new ObjectMapper();
-        String output = response.readEntity(String.class);
-        logger.debug(" Response output {}", output);
-        try {
-            returnObject = (T) mapper.readValue(output, clazz);
-        } catch (Exception e) {
+        PrefixCapturingInputStream body = null;
+        try (InputStream entity = response.readEntity(InputStream.class)) {
+            InputStream content = entity;
+            int limit = loggedBodyLimit;
+            if (limit > 0 && logger.isDebugEnabled()) {
+                body = new PrefixCapturingInputStream(entity, limit);
+                content = body;
+            }
+            return read(content, reader);
+        } catch (IOException | RuntimeException e) {
             logger.error("error while mapping Json", e);
+            return null;
         } finally {
+            if (body != null) {
+                logger.debug(" Response output {}", body.getPrefixText());
+            }
             logger.trace("convertJsonResponseToObject() exited");
         }
+    }
 
-        return returnObject;
 
+    private static <T> T read(InputStream content, ObjectReader reader) {
+        try {
+            // the reader would close the stream when it reaches the end of the input
+            return reader.readValue(StreamUtils.nonClosing(content));
+        } catch (JsonProcessingException e) {
+            JsonLocation location = e.getLocation();
+            logger.error("error while mapping Json at byte offset {}: {}", location != null ? location.getByteOffset() : -1, e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            logger.error("error while reading Json", e);
+            return null;
+        }
     }
 }
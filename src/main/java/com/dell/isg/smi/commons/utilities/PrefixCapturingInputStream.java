@@ -0,0 +1,115 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The Class PrefixCapturingInputStream.
+ *
+ * Passes a stream through while keeping a copy of its first bytes and counting the rest, so a response body can be logged in bounded space after it has been parsed.
+ */
+final class PrefixCapturingInputStream extends FilterInputStream {
+    private final byte[] prefix;
+    private int captured;
+    private boolean capturing = true;
+    private long count;
+
+
+    /**
+     * Instantiates a new prefix capturing input stream.
+     *
+     * @param in the input stream
+     * @param limit the number of leading bytes to keep
+     */
+    PrefixCapturingInputStream(InputStream in, int limit) {
+        super(in);
+        this.prefix = new byte[limit];
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            if (capturing && captured < prefix.length) {
+                prefix[captured++] = (byte) b;
+            }
+            count++;
+        }
+        return b;
+    }
+
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            int copy = capturing ? Math.min(read, prefix.length - captured) : 0;
+            if (copy > 0) {
+                System.arraycopy(b, off, prefix, captured, copy);
+                captured += copy;
+            }
+            count += read;
+        }
+        return read;
+    }
+
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            // skipped bytes are not seen, so the prefix would no longer be contiguous
+            capturing = false;
+        }
+        count += skipped;
+        return skipped;
+    }
+
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+
+    /**
+     * Gets the number of bytes read so far.
+     *
+     * @return the count
+     */
+    long getCount() {
+        return count;
+    }
+
+
+    /**
+     * Gets the captured leading bytes decoded as UTF-8, marked as truncated when more was read. A character cut by the limit is left out.
+     *
+     * @return the prefix text
+     */
+    String getPrefixText() {
+        int end = count > captured ? characterBoundary(captured) : captured;
+        String text = new String(prefix, 0, end, StandardCharsets.UTF_8);
+        return count > captured ? text + "...(" + count + " bytes)" : text;
+    }
+
+
+    private int characterBoundary(int end) {
+        int start = end - 1;
+        while (start >= 0 && end - start < 4 && (prefix[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start < 0) {
+            return end;
+        }
+        int lead = prefix[start] & 0xFF;
+        int length = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        return start + length > end ? start : end;
+    }
+}
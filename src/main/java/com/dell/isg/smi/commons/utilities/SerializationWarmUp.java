@@ -0,0 +1,439 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dell.isg.smi.commons.utilities.xml.JAXBContextRegistry;
+import com.dell.isg.smi.commons.utilities.xml.JAXBMarshallerPool;
+import com.dell.isg.smi.commons.utilities.xml.XMLUtil;
+import com.dell.isg.smi.commons.utilities.xml.XmlBindingProvider;
+import com.dell.isg.smi.commons.utilities.xml.XmlBindings;
+import com.dell.isg.smi.commons.utilities.xml.XmlHelper;
+
+/**
+ * The Class SerializationWarmUp.
+ *
+ * Moves the one-time cost of XML and JSON binding out of the first requests after a deploy. Services register their model classes, the class sets they pass to the
+ * {@code Class[]} methods of {@link XMLUtil} and {@link XmlHelper}, sample instances or packages to scan, then call {@link #start()} at startup. A background thread
+ * builds the same JAXB contexts the runtime looks up in {@link JAXBContextRegistry} - one per class for the single-class helpers, one per registered class set - fills
+ * the marshaller pools and resolves the Jackson serializers used by {@link JsonUtils}. Only the registered samples are round-tripped, a number of times, through the
+ * same helpers so the binding code paths get compiled; scanned classes are never instantiated. Warm-up is best effort: a class that cannot be bound is logged and
+ * reported by {@link #getFailedClasses()}, and the readiness signal still completes.
+ */
+public final class SerializationWarmUp {
+    private static final Logger log = LoggerFactory.getLogger(SerializationWarmUp.class);
+
+    public static final int DEFAULT_ITERATIONS = 50;
+
+    private final Set<Class<?>> classes = new LinkedHashSet<>();
+    private final List<Class<?>[]> contextClasses = new ArrayList<>();
+    private final List<Object> samples = new ArrayList<>();
+    private final List<String> packages = new ArrayList<>();
+    private final Set<Class<?>> failedClasses = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile int iterations = DEFAULT_ITERATIONS;
+    private volatile ClassLoader classLoader;
+
+
+    /**
+     * Registers model classes, each warmed up on its own as used by {@link com.dell.isg.smi.commons.utilities.xml.JAXBHelper} and the single-class methods of
+     * {@link XmlHelper}.
+     *
+     * @param types the types
+     * @return this warm-up
+     */
+    public synchronized SerializationWarmUp register(Class<?>... types) {
+        checkNotStarted();
+        Collections.addAll(classes, types);
+        return this;
+    }
+
+
+    /**
+     * Registers a set of classes that are bound together, as passed to the {@code Class[]} methods of {@link XMLUtil} and {@link XmlHelper}, so that the context those
+     * methods look up is built. The order of the classes does not matter.
+     *
+     * @param jaxbClasses the jaxb classes
+     * @return this warm-up
+     */
+    public synchronized SerializationWarmUp registerContext(Class<?>... jaxbClasses) {
+        checkNotStarted();
+        if (jaxbClasses.length == 0) {
+            throw new IllegalArgumentException("At least one class is required");
+        }
+        contextClasses.add(jaxbClasses.clone());
+        return this;
+    }
+
+
+    /**
+     * Registers a populated sample instance to round-trip, which exercises more of the binding code than a default instance.
+     *
+     * @param sample the sample
+     * @return this warm-up
+     */
+    public synchronized SerializationWarmUp registerSample(Object sample) {
+        checkNotStarted();
+        samples.add(sample);
+        classes.add(sample.getClass());
+        return this;
+    }
+
+
+    /**
+     * Registers a package whose concrete top-level classes are warmed up like registered classes. Sub-packages are included. The package is scanned on the warm-up
+     * thread and its classes are only introspected, never instantiated.
+     *
+     * @param packageName the package name
+     * @return this warm-up
+     */
+    public synchronized SerializationWarmUp scanPackage(String packageName) {
+        checkNotStarted();
+        packages.add(packageName);
+        return this;
+    }
+
+
+    /**
+     * Sets the class loader used to scan packages, by default the context class loader of the thread calling {@link #start()}.
+     *
+     * @param loader the class loader
+     * @return this warm-up
+     */
+    public SerializationWarmUp setClassLoader(ClassLoader loader) {
+        this.classLoader = loader;
+        return this;
+    }
+
+
+    /**
+     * Sets the number of times each sample is round-tripped.
+     *
+     * @param count the iteration count
+     * @return this warm-up
+     */
+    public SerializationWarmUp setIterations(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Iterations must not be negative: " + count);
+        }
+        this.iterations = count;
+        return this;
+    }
+
+
+    /**
+     * Starts the warm-up on a daemon thread. Calling it again has no effect.
+     *
+     * @return the readiness signal, completed when the warm-up is done
+     */
+    public CompletableFuture<Void> start() {
+        if (started.compareAndSet(false, true)) {
+            if (classLoader == null) {
+                classLoader = Thread.currentThread().getContextClassLoader();
+            }
+            Thread thread = new Thread(this::execute, "serialization-warm-up");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+        return ready;
+    }
+
+
+    /**
+     * Runs the warm-up on the calling thread.
+     */
+    public void run() {
+        if (started.compareAndSet(false, true)) {
+            if (classLoader == null) {
+                classLoader = Thread.currentThread().getContextClassLoader();
+            }
+            execute();
+        }
+    }
+
+
+    /**
+     * Gets the readiness signal.
+     *
+     * @return the future completed when the warm-up is done
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return ready;
+    }
+
+
+    /**
+     * Checks if the warm-up is done.
+     *
+     * @return true, if ready
+     */
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+
+    /**
+     * Waits for the warm-up to finish.
+     *
+     * @param timeout the timeout
+     * @param unit the unit
+     * @return true, if the warm-up finished in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            ready.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+
+    /**
+     * Gets the classes that could not be bound to XML or JSON.
+     *
+     * @return the failed classes
+     */
+    public Set<Class<?>> getFailedClasses() {
+        return Collections.unmodifiableSet(failedClasses);
+    }
+
+
+    private void checkNotStarted() {
+        if (started.get()) {
+            throw new IllegalStateException("Warm-up already started");
+        }
+    }
+
+
+    private void execute() {
+        long start = System.nanoTime();
+        try {
+            Set<Class<?>> types;
+            List<Class<?>[]> classSets;
+            List<Object> instances;
+            synchronized (this) {
+                types = new LinkedHashSet<>(classes);
+                classSets = new ArrayList<>(contextClasses);
+                instances = new ArrayList<>(samples);
+            }
+            for (String packageName : packages) {
+                types.addAll(findClasses(packageName));
+            }
+
+            for (Class<?> type : types) {
+                prepare(type);
+            }
+            for (Class<?>[] classSet : classSets) {
+                prepare(classSet);
+            }
+            for (Object sample : instances) {
+                roundTrip(sample, classSets);
+            }
+            log.info("Serialization warm-up of {} classes finished in {} ms, {} failed", types.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    failedClasses.size());
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("Serialization warm-up aborted: " + e.getMessage(), e);
+        } finally {
+            ready.complete(null);
+        }
+    }
+
+
+    private void prepare(Class<?> type) {
+        if (isXmlBound(type)) {
+            try {
+                JAXBContext context = JAXBContextRegistry.getContext(type);
+                JAXBMarshallerPool.returnMarshaller(context, JAXBMarshallerPool.borrowMarshaller(context));
+                JAXBMarshallerPool.returnUnmarshaller(context, JAXBMarshallerPool.borrowUnmarshaller(context));
+            } catch (JAXBException | RuntimeException e) {
+                log.debug("Unable to build JAXB context for " + type.getName() + ": " + e.getMessage(), e);
+                failedClasses.add(type);
+            }
+        }
+        try {
+            if (!JsonUtils.warmUp(type)) {
+                failedClasses.add(type);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Unable to resolve Jackson serializers for " + type.getName() + ": " + e.getMessage(), e);
+            failedClasses.add(type);
+        }
+    }
+
+
+    private void prepare(Class<?>[] classSet) {
+        try {
+            JAXBContext context = JAXBContextRegistry.getContext(classSet);
+            // the Class[] helpers write indented xml by default
+            JAXBMarshallerPool.returnMarshaller(context, JAXBMarshallerPool.FORMATTED_OUTPUT_PROPERTIES,
+                    JAXBMarshallerPool.borrowMarshaller(context, JAXBMarshallerPool.FORMATTED_OUTPUT_PROPERTIES));
+            JAXBMarshallerPool.returnUnmarshaller(context, JAXBMarshallerPool.borrowUnmarshaller(context));
+        } catch (JAXBException | RuntimeException e) {
+            log.debug("Unable to build JAXB context for " + Arrays.toString(classSet) + ": " + e.getMessage(), e);
+            Collections.addAll(failedClasses, classSet);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void roundTrip(Object sample, List<Class<?>[]> classSets) {
+        Class<Object> type = (Class<Object>) sample.getClass();
+        try {
+            if (type.isAnnotationPresent(XmlRootElement.class)) {
+                // the same provider JAXBHelper and the single-class XmlHelper methods use
+                XmlBindingProvider provider = XmlBindings.getProvider(type);
+                for (int i = 0; i < iterations; i++) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    provider.marshal(sample, type, out);
+                    provider.unmarshal(new ByteArrayInputStream(out.toByteArray()), type);
+                }
+                for (Class<?>[] classSet : classSets) {
+                    if (contains(classSet, type)) {
+                        for (int i = 0; i < iterations; i++) {
+                            XMLUtil.parseXMLFromStream(new ByteArrayInputStream(XMLUtil.getXML(sample, classSet)), classSet);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < iterations; i++) {
+                String json = JsonUtils.writeToString(sample);
+                if (json == null || JsonUtils.readFromString(json, type) == null) {
+                    failedClasses.add(type);
+                    return;
+                }
+            }
+        } catch (JAXBException | RuntimeException e) {
+            log.debug("Unable to round-trip " + type.getName() + ": " + e.getMessage(), e);
+            failedClasses.add(type);
+        }
+    }
+
+
+    private static boolean contains(Class<?>[] classSet, Class<?> type) {
+        for (Class<?> candidate : classSet) {
+            if (candidate.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static boolean isXmlBound(Class<?> type) {
+        return type.isAnnotationPresent(XmlRootElement.class) || type.isAnnotationPresent(XmlType.class);
+    }
+
+
+    private static boolean isConcrete(Class<?> type) {
+        int modifiers = type.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isAbstract(modifiers) && !type.isInterface() && !type.isEnum() && !type.isAnnotation();
+    }
+
+
+    private List<Class<?>> findClasses(String packageName) {
+        List<Class<?>> found = new ArrayList<>();
+        String path = packageName.replace('.', '/');
+        ClassLoader loader = classLoader != null ? classLoader : SerializationWarmUp.class.getClassLoader();
+        try {
+            Enumeration<URL> resources = loader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                List<String> names = new ArrayList<>();
+                if ("file".equals(resource.getProtocol())) {
+                    collectClassNames(new File(resource.toURI()), packageName, names);
+                } else {
+                    URLConnection connection = resource.openConnection();
+                    if (connection instanceof JarURLConnection) {
+                        collectClassNames(((JarURLConnection) connection).getJarFile(), path, names);
+                    }
+                }
+                for (String name : names) {
+                    try {
+                        Class<?> type = Class.forName(name, false, loader);
+                        if (isConcrete(type)) {
+                            found.add(type);
+                        }
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        log.debug("Skipping class " + name + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            log.warn("Unable to scan package " + packageName + ": " + e.getMessage(), e);
+        }
+        return found;
+    }
+
+
+    private static void collectClassNames(File directory, String packageName, List<String> names) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String fileName = file.getName();
+            if (file.isDirectory()) {
+                collectClassNames(file, packageName + "." + fileName, names);
+            } else if (isTopLevelClassFile(fileName)) {
+                names.add(packageName + "." + fileName.substring(0, fileName.length() - ".class".length()));
+            }
+        }
+    }
+
+
+    private static void collectClassNames(JarFile jar, String path, List<String> names) {
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String entryName = entries.nextElement().getName();
+            String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+            if (entryName.startsWith(path + "/") && isTopLevelClassFile(fileName)) {
+                names.add(entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+    }
+
+
+    private static boolean isTopLevelClassFile(String fileName) {
+        return fileName.endsWith(".class") && fileName.indexOf('$') < 0 && !fileName.startsWith("package-info") && !fileName.startsWith("module-info");
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.stream;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The Class ByteBufferInputStream.
+ *
+ * An input stream reading the remaining bytes of a {@link ByteBuffer}, such as a memory-mapped file, without copying them into a byte array. The stream reads from a
+ * duplicate, so the position of the given buffer is left untouched.
+ */
+public class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+    private int mark;
+
+
+    /**
+     * Instantiates a new byte buffer input stream.
+     *
+     * @param buffer the buffer
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        this.mark = this.buffer.position();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#read()
+     */
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#read(byte[], int, int)
+     */
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, off, count);
+        return count;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#skip(long)
+     */
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#available()
+     */
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#markSupported()
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#mark(int)
+     */
+    @Override
+    public synchronized void mark(int readlimit) {
+        mark = buffer.position();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.InputStream#reset()
+     */
+    @Override
+    public synchronized void reset() {
+        buffer.position(mark);
+    }
+}
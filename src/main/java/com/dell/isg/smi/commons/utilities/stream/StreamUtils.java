@@ -3,7 +3,11 @@
  */
 package com.dell.isg.smi.commons.utilities.stream;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,4 +41,38 @@ public class StreamUtils {
             }
         }
     }
+
+
+    /**
+     * Reads the rest of an input stream into a byte array. The stream is not closed.
+     *
+     * @param inputStream the input stream
+     * @return the bytes read
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+
+    /**
+     * Wraps an input stream so that closing the wrapper leaves the stream open, for handing a caller's stream to code that closes what it reads.
+     *
+     * @param inputStream the input stream
+     * @return the non-closing wrapper
+     */
+    public static InputStream nonClosing(InputStream inputStream) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public void close() {
+                // the caller owns the underlying stream
+            }
+        };
+    }
 }
@@ -0,0 +1,54 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Class AccessTime.
+ *
+ * Coarse access timestamps for the approximate LRU eviction of the caches in this package. A cache hit reads {@link System#nanoTime()}, which shares no state between
+ * threads, and only writes the entry's timestamp when it is older than the resolution, so hits on a hot entry do not keep writing the same field.
+ */
+final class AccessTime {
+    private static final long RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+
+    private AccessTime() {
+    }
+
+
+    /**
+     * Gets the current timestamp.
+     *
+     * @return the timestamp
+     */
+    static long now() {
+        return System.nanoTime();
+    }
+
+
+    /**
+     * Checks if an entry's timestamp should be refreshed.
+     *
+     * @param lastAccess the entry's timestamp
+     * @param now the current timestamp
+     * @return true, if the timestamp is older than the resolution
+     */
+    static boolean isStale(long lastAccess, long now) {
+        return now - lastAccess >= RESOLUTION_NANOS;
+    }
+
+
+    /**
+     * Checks if one timestamp is older than another. Timestamps are compared by difference, as {@link System#nanoTime()} may wrap.
+     *
+     * @param a a timestamp
+     * @param b another timestamp
+     * @return true, if a is older than b
+     */
+    static boolean isOlder(long a, long b) {
+        return a - b < 0;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * The Class DocumentBuilderPool.
+ *
+ * Pools of DOM {@link DocumentBuilder}s, one pool for namespace aware and one for namespace unaware parsing. Each factory is looked up and hardened with secure
+ * processing once; builders are reset and given a {@link NullXmlEntityResolver} again before reuse, so pooled builders keep the XXE protection of freshly built ones.
+ */
+public final class DocumentBuilderPool {
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private static final DocumentBuilderFactory namespaceAwareFactory = createFactory(true);
+    private static final DocumentBuilderFactory namespaceUnawareFactory = createFactory(false);
+
+    private static final BlockingQueue<DocumentBuilder> namespaceAwareBuilders = new ArrayBlockingQueue<>(DEFAULT_POOL_SIZE);
+    private static final BlockingQueue<DocumentBuilder> namespaceUnawareBuilders = new ArrayBlockingQueue<>(DEFAULT_POOL_SIZE);
+
+
+    private DocumentBuilderPool() {
+    }
+
+
+    /**
+     * Borrows a hardened document builder.
+     *
+     * @param namespaceAware the namespace aware
+     * @return the document builder
+     * @throws ParserConfigurationException the parser configuration exception
+     */
+    public static DocumentBuilder borrowBuilder(boolean namespaceAware) throws ParserConfigurationException {
+        DocumentBuilder builder = (namespaceAware ? namespaceAwareBuilders : namespaceUnawareBuilders).poll();
+        if (builder == null) {
+            DocumentBuilderFactory factory = namespaceAware ? namespaceAwareFactory : namespaceUnawareFactory;
+            // DocumentBuilderFactory is not thread-safe
+            synchronized (factory) {
+                builder = factory.newDocumentBuilder();
+            }
+        }
+        builder.setEntityResolver(new NullXmlEntityResolver());
+        return builder;
+    }
+
+
+    /**
+     * Resets a document builder and returns it to its pool.
+     *
+     * @param namespaceAware the namespace aware setting it was borrowed with
+     * @param builder the document builder
+     */
+    public static void returnBuilder(boolean namespaceAware, DocumentBuilder builder) {
+        if (builder == null) {
+            return;
+        }
+        try {
+            builder.reset();
+        } catch (UnsupportedOperationException e) {
+            // builders that cannot be reset are not reused
+            return;
+        }
+        (namespaceAware ? namespaceAwareBuilders : namespaceUnawareBuilders).offer(builder);
+    }
+
+
+    private static DocumentBuilderFactory createFactory(boolean namespaceAware) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(namespaceAware);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Unable to enable secure processing on " + factory.getClass().getName(), e);
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,623 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+
+/**
+ * The Class IndexedXmlDocument.
+ *
+ * Read-only view of an XML document for repeated queries. Instead of building DOM nodes the document is scanned once and the byte offsets of each element's name and
+ * content, plus its parent, first child and next sibling, are recorded in primitive arrays over the original byte array, in document order. Names, attribute values and
+ * text are only decoded when asked for. Elements are identified by their index, the root element being 0; {@code -1} means no element.
+ *
+ * The index works on encodings whose markup is ASCII compatible, such as UTF-8 and ISO-8859-1. DTDs are skipped and entity references other than the predefined and
+ * character references are left undecoded. The byte array must not be modified while the index is in use.
+ */
+public final class IndexedXmlDocument {
+    private static final int ROOT = 0;
+
+    private final byte[] xml;
+    private final Charset charset;
+
+    private int count;
+    private int[] nameStart;
+    private int[] nameLength;
+    private int[] contentStart;
+    private int[] contentEnd;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+
+
+    private IndexedXmlDocument(byte[] xml, Charset charset) {
+        this.xml = xml;
+        this.charset = charset;
+        int capacity = Math.max(16, xml.length / 64);
+        nameStart = new int[capacity];
+        nameLength = new int[capacity];
+        contentStart = new int[capacity];
+        contentEnd = new int[capacity];
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+    }
+
+
+    /**
+     * Indexes an xml document.
+     *
+     * @param xml the xml
+     * @return the indexed document
+     * @throws IllegalArgumentException if the document is not well-formed enough to index, or its encoding is not ASCII compatible
+     */
+    public static IndexedXmlDocument parse(byte[] xml) {
+        Charset charset = XmlFileReader.detectCharset(ByteBuffer.wrap(xml));
+        if (charset.equals(StandardCharsets.UTF_16BE) || charset.equals(StandardCharsets.UTF_16LE) || charset.name().startsWith("UTF-16")
+                || charset.name().startsWith("UTF-32")) {
+            throw new IllegalArgumentException("Unsupported encoding for indexing: " + charset.name());
+        }
+        IndexedXmlDocument document = new IndexedXmlDocument(xml, charset);
+        document.index();
+        return document;
+    }
+
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the element count
+     */
+    public int getElementCount() {
+        return count;
+    }
+
+
+    /**
+     * Gets the root element.
+     *
+     * @return the root element
+     */
+    public int getRoot() {
+        return ROOT;
+    }
+
+
+    /**
+     * Gets the qualified name of an element, as written in the document.
+     *
+     * @param element the element
+     * @return the name
+     */
+    public String getName(int element) {
+        return new String(xml, nameStart[element], nameLength[element], charset);
+    }
+
+
+    /**
+     * Gets the local name of an element.
+     *
+     * @param element the element
+     * @return the local name
+     */
+    public String getLocalName(int element) {
+        String name = getName(element);
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+
+    /**
+     * Gets the parent of an element.
+     *
+     * @param element the element
+     * @return the parent, or -1 for the root element
+     */
+    public int getParent(int element) {
+        return parent[element];
+    }
+
+
+    /**
+     * Gets the first child element of an element.
+     *
+     * @param element the element
+     * @return the first child, or -1 if it has no child elements
+     */
+    public int getFirstChild(int element) {
+        return firstChild[element];
+    }
+
+
+    /**
+     * Gets the next sibling element of an element.
+     *
+     * @param element the element
+     * @return the next sibling, or -1 if it is the last child of its parent
+     */
+    public int getNextSibling(int element) {
+        return nextSibling[element];
+    }
+
+
+    /**
+     * Gets the child elements of an element.
+     *
+     * @param element the element
+     * @return the children, in document order
+     */
+    public int[] getChildren(int element) {
+        int size = 0;
+        for (int child = firstChild[element]; child >= 0; child = nextSibling[child]) {
+            size++;
+        }
+        int[] children = new int[size];
+        int i = 0;
+        for (int child = firstChild[element]; child >= 0; child = nextSibling[child]) {
+            children[i++] = child;
+        }
+        return children;
+    }
+
+
+    /**
+     * Gets the text directly contained by an element, with character data sections included and character references decoded. The text of child elements is not
+     * included.
+     *
+     * @param element the element
+     * @return the text
+     */
+    public String getText(int element) {
+        StringBuilder text = new StringBuilder();
+        int position = contentStart[element];
+        for (int child = firstChild[element]; child >= 0; child = nextSibling[child]) {
+            appendText(text, position, nameStart[child] - 1);
+            position = elementEnd(child);
+        }
+        appendText(text, position, contentEnd[element]);
+        return text.toString();
+    }
+
+
+    /**
+     * Gets an attribute of an element by its qualified name.
+     *
+     * @param element the element
+     * @param name the attribute name
+     * @return the decoded value, or null if the element has no such attribute
+     */
+    public String getAttribute(int element, String name) {
+        int i = nameStart[element] + nameLength[element];
+        int end = contentStart[element] - 1;
+        while (i < end) {
+            while (i < end && (isWhitespace(xml[i]) || xml[i] == '/')) {
+                i++;
+            }
+            int attributeStart = i;
+            while (i < end && xml[i] != '=' && !isWhitespace(xml[i])) {
+                i++;
+            }
+            int attributeEnd = i;
+            while (i < end && xml[i] != '\'' && xml[i] != '"') {
+                i++;
+            }
+            if (i >= end) {
+                return null;
+            }
+            byte quote = xml[i++];
+            int valueStart = i;
+            while (i < end && xml[i] != quote) {
+                i++;
+            }
+            if (new String(xml, attributeStart, attributeEnd - attributeStart, charset).equals(name)) {
+                return unescape(new String(xml, valueStart, i - valueStart, charset));
+            }
+            i++;
+        }
+        return null;
+    }
+
+
+    /**
+     * Gets the elements with the given qualified name, like {@link org.w3c.dom.Element#getElementsByTagName(String)} on a document parsed without namespace awareness.
+     *
+     * @param name the name
+     * @return the elements, in document order
+     */
+    public int[] getElementsByTagName(String name) {
+        byte[] encoded = name.getBytes(charset);
+        int[] matches = new int[16];
+        int size = 0;
+        for (int element = 0; element < count; element++) {
+            if (nameEquals(element, encoded)) {
+                if (size == matches.length) {
+                    matches = Arrays.copyOf(matches, size * 2);
+                }
+                matches[size++] = element;
+            }
+        }
+        return Arrays.copyOf(matches, size);
+    }
+
+
+    /**
+     * Selects the elements matching a simple element path such as {@code Body/Item/InstanceID} or {@code /Envelope/Header}.
+     *
+     * @param path the path
+     * @return the elements, in document order
+     */
+    public int[] select(String path) {
+        SimpleXmlPath xmlPath = new SimpleXmlPath(path);
+        List<QName> ancestors = new ArrayList<>();
+        int[] open = new int[16];
+        int[] matches = new int[16];
+        int size = 0;
+        for (int element = 0; element < count; element++) {
+            int depth = ancestors.size();
+            while (depth > 0 && open[depth - 1] != parent[element]) {
+                depth--;
+                ancestors.remove(depth);
+            }
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+            }
+            open[depth] = element;
+            ancestors.add(toQName(element));
+            if (xmlPath.matches(ancestors)) {
+                if (size == matches.length) {
+                    matches = Arrays.copyOf(matches, size * 2);
+                }
+                matches[size++] = element;
+            }
+        }
+        return Arrays.copyOf(matches, size);
+    }
+
+
+    /**
+     * Finds the value of the first child node of the first element below the root with the given qualified name, the indexed counterpart of
+     * {@link XmlHelper#findObjectInDocument(org.w3c.dom.Document, String)}: as in the DOM, the root element itself is never matched and only the first text, character
+     * data or comment node is returned, not all of the element's text.
+     *
+     * @param nodeName the node name
+     * @return the value, an empty string if no element has that name or it is empty, or null if its first child is an element
+     */
+    public String findValue(String nodeName) {
+        byte[] encoded = nodeName.getBytes(charset);
+        for (int element = ROOT + 1; element < count; element++) {
+            if (nameEquals(element, encoded)) {
+                return getFirstNodeValue(element);
+            }
+        }
+        return "";
+    }
+
+
+    private void index() {
+        int[] open = new int[32];
+        int[] lastChild = new int[32];
+        int depth = 0;
+        int n = xml.length;
+        int i = 0;
+        while (i < n) {
+            if (xml[i] != '<') {
+                i = indexOf('<', i, n);
+                continue;
+            }
+            if (startsWith(i, "<?")) {
+                i = skipPast(i, "?>");
+            } else if (startsWith(i, "<!--")) {
+                i = skipPast(i, "-->");
+            } else if (startsWith(i, "<![CDATA[")) {
+                i = skipPast(i, "]]>");
+            } else if (startsWith(i, "<!")) {
+                i = skipDeclaration(i);
+            } else if (startsWith(i, "</")) {
+                if (depth == 0) {
+                    throw malformed("Unexpected end tag", i);
+                }
+                contentEnd[open[--depth]] = i;
+                i = indexOf('>', i, n);
+                if (i == n) {
+                    throw malformed("Unterminated end tag", i);
+                }
+                i++;
+            } else {
+                if (depth == 0 && count > 0) {
+                    throw malformed("More than one root element", i);
+                }
+                int element = addElement(i + 1, depth == 0 ? -1 : open[depth - 1]);
+                int nameEnd = i + 1;
+                while (nameEnd < n && !isWhitespace(xml[nameEnd]) && xml[nameEnd] != '/' && xml[nameEnd] != '>') {
+                    nameEnd++;
+                }
+                nameLength[element] = nameEnd - (i + 1);
+                int tagEnd = findTagEnd(nameEnd);
+                contentStart[element] = tagEnd + 1;
+                if (depth > 0) {
+                    if (lastChild[depth - 1] < 0) {
+                        firstChild[open[depth - 1]] = element;
+                    } else {
+                        nextSibling[lastChild[depth - 1]] = element;
+                    }
+                    lastChild[depth - 1] = element;
+                }
+                if (xml[tagEnd - 1] == '/') {
+                    contentEnd[element] = tagEnd + 1;
+                } else {
+                    if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth * 2);
+                        lastChild = Arrays.copyOf(lastChild, depth * 2);
+                    }
+                    open[depth] = element;
+                    lastChild[depth] = -1;
+                    depth++;
+                }
+                i = tagEnd + 1;
+            }
+        }
+        if (count == 0) {
+            throw malformed("No root element", 0);
+        }
+        if (depth > 0) {
+            throw malformed("Unclosed element " + getName(open[depth - 1]), n);
+        }
+    }
+
+
+    private int addElement(int start, int parentElement) {
+        if (count == nameStart.length) {
+            int capacity = count + (count >> 1) + 1;
+            nameStart = Arrays.copyOf(nameStart, capacity);
+            nameLength = Arrays.copyOf(nameLength, capacity);
+            contentStart = Arrays.copyOf(contentStart, capacity);
+            contentEnd = Arrays.copyOf(contentEnd, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+        }
+        int element = count++;
+        nameStart[element] = start;
+        parent[element] = parentElement;
+        firstChild[element] = -1;
+        nextSibling[element] = -1;
+        return element;
+    }
+
+
+    /**
+     * Gets the offset just past an element's end tag, or past the start tag of an empty element.
+     */
+    private int elementEnd(int element) {
+        int start = contentStart[element];
+        if (contentEnd[element] == start && xml[start - 2] == '/') {
+            return start;
+        }
+        return indexOf('>', contentEnd[element], xml.length) + 1;
+    }
+
+
+    /**
+     * Gets the value the DOM reports for an element's first child node: the text of a text, character data or comment node, the data of a processing instruction and
+     * null for an element.
+     */
+    private String getFirstNodeValue(int element) {
+        int i = contentStart[element];
+        int end = contentEnd[element];
+        if (i >= end) {
+            return "";
+        }
+        if (startsWith(i, "<![CDATA[")) {
+            return new String(xml, i + 9, indexOf("]]>", i + 9, end) - i - 9, charset);
+        }
+        if (startsWith(i, "<!--")) {
+            return new String(xml, i + 4, indexOf("-->", i + 4, end) - i - 4, charset);
+        }
+        if (startsWith(i, "<?")) {
+            int dataEnd = indexOf("?>", i + 2, end);
+            int dataStart = i + 2;
+            while (dataStart < dataEnd && !isWhitespace(xml[dataStart])) {
+                dataStart++;
+            }
+            while (dataStart < dataEnd && isWhitespace(xml[dataStart])) {
+                dataStart++;
+            }
+            return new String(xml, dataStart, dataEnd - dataStart, charset);
+        }
+        if (xml[i] == '<') {
+            return null;
+        }
+        return unescape(new String(xml, i, indexOf('<', i, end) - i, charset));
+    }
+
+
+    private void appendText(StringBuilder text, int start, int end) {
+        int i = start;
+        while (i < end) {
+            if (startsWith(i, "<![CDATA[")) {
+                int dataEnd = indexOf("]]>", i + 9, end);
+                text.append(new String(xml, i + 9, dataEnd - i - 9, charset));
+                i = dataEnd + 3;
+            } else if (startsWith(i, "<!--")) {
+                i = indexOf("-->", i + 4, end) + 3;
+            } else if (startsWith(i, "<?")) {
+                i = indexOf("?>", i + 2, end) + 2;
+            } else {
+                int runEnd = indexOf('<', i, end);
+                text.append(unescape(new String(xml, i, runEnd - i, charset)));
+                i = runEnd;
+            }
+        }
+    }
+
+
+    private QName toQName(int element) {
+        String name = getName(element);
+        int colon = name.indexOf(':');
+        if (colon < 0) {
+            return new QName(name);
+        }
+        return new QName(XMLConstants.NULL_NS_URI, name.substring(colon + 1), name.substring(0, colon));
+    }
+
+
+    private boolean nameEquals(int element, byte[] name) {
+        if (nameLength[element] != name.length) {
+            return false;
+        }
+        int start = nameStart[element];
+        for (int i = 0; i < name.length; i++) {
+            if (xml[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private int findTagEnd(int from) {
+        byte quote = 0;
+        for (int i = from; i < xml.length; i++) {
+            byte b = xml[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return i;
+            }
+        }
+        throw malformed("Unterminated start tag", from);
+    }
+
+
+    private int skipDeclaration(int from) {
+        int brackets = 0;
+        for (int i = from + 2; i < xml.length; i++) {
+            if (xml[i] == '[') {
+                brackets++;
+            } else if (xml[i] == ']') {
+                brackets--;
+            } else if (xml[i] == '>' && brackets <= 0) {
+                return i + 1;
+            }
+        }
+        throw malformed("Unterminated declaration", from);
+    }
+
+
+    private int skipPast(int from, String terminator) {
+        int end = indexOf(terminator, from + 2, xml.length);
+        if (end == xml.length) {
+            throw malformed("Missing " + terminator, from);
+        }
+        return end + terminator.length();
+    }
+
+
+    private boolean startsWith(int offset, String prefix) {
+        if (offset + prefix.length() > xml.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (xml[offset + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private int indexOf(char c, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (xml[i] == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+
+    private int indexOf(String s, int from, int end) {
+        for (int i = from; i + s.length() <= end; i++) {
+            if (startsWith(i, s)) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+
+    private static IllegalArgumentException malformed(String message, int offset) {
+        return new IllegalArgumentException(message + " at byte offset " + offset);
+    }
+
+
+    private static String unescape(String text) {
+        int amp = text.indexOf('&');
+        if (amp < 0) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        int i = 0;
+        while (amp >= 0) {
+            result.append(text, i, amp);
+            int semicolon = text.indexOf(';', amp);
+            if (semicolon < 0) {
+                i = amp;
+                break;
+            }
+            String entity = text.substring(amp + 1, semicolon);
+            String replacement = resolveEntity(entity);
+            result.append(replacement != null ? replacement : "&" + entity + ";");
+            i = semicolon + 1;
+            amp = text.indexOf('&', i);
+        }
+        result.append(text, i, text.length());
+        return result.toString();
+    }
+
+
+    private static String resolveEntity(String entity) {
+        switch (entity) {
+        case "lt":
+            return "<";
+        case "gt":
+            return ">";
+        case "amp":
+            return "&";
+        case "quot":
+            return "\"";
+        case "apos":
+            return "'";
+        default:
+            break;
+        }
+        try {
+            if (entity.startsWith("#x")) {
+                return new String(Character.toChars(Integer.parseInt(entity.substring(2), 16)));
+            }
+            if (entity.startsWith("#")) {
+                return new String(Character.toChars(Integer.parseInt(entity.substring(1))));
+            }
+        } catch (IllegalArgumentException e) {
+            // not a valid character reference, left as written
+        }
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+import javax.xml.bind.Unmarshaller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class InterningUnmarshallerListener.
+ *
+ * Unmarshaller listener that replaces the strings of each unmarshalled object with shared instances from a {@link StringInterner}. It covers String fields, String
+ * arrays and the String elements of modifiable lists, in the object's class and its superclasses, so the model classes need no adapters or annotations. The fields
+ * of each class are looked up once.
+ */
+public class InterningUnmarshallerListener extends Unmarshaller.Listener {
+    private static final Logger log = LoggerFactory.getLogger(InterningUnmarshallerListener.class);
+
+    private static final ClassValue<Field[]> stringFields = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            return findStringFields(type);
+        }
+    };
+
+    private final StringInterner interner;
+
+
+    /**
+     * Instantiates a new interning unmarshaller listener.
+     *
+     * @param interner the interner
+     */
+    public InterningUnmarshallerListener(StringInterner interner) {
+        this.interner = interner;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see javax.xml.bind.Unmarshaller.Listener#afterUnmarshal(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    public void afterUnmarshal(Object target, Object parent) {
+        for (Field field : stringFields.get(target.getClass())) {
+            try {
+                Object value = field.get(target);
+                if (value instanceof String) {
+                    String shared = interner.intern((String) value);
+                    if (shared != value) {
+                        field.set(target, shared);
+                    }
+                } else if (value instanceof String[]) {
+                    String[] values = (String[]) value;
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = interner.intern(values[i]);
+                    }
+                } else if (value instanceof List) {
+                    internElements((List<?>) value);
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                log.debug("Unable to intern " + field + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void internElements(List<?> values) {
+        ListIterator<Object> it = ((List<Object>) values).listIterator();
+        while (it.hasNext()) {
+            Object element = it.next();
+            if (element instanceof String) {
+                String shared = interner.intern((String) element);
+                if (shared != element) {
+                    try {
+                        it.set(shared);
+                    } catch (UnsupportedOperationException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+
+    private static Field[] findStringFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+                Class<?> fieldType = field.getType();
+                if (fieldType == String.class || fieldType == String[].class || List.class.isAssignableFrom(fieldType) || fieldType == Object.class) {
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException e) {
+                        log.debug("Skipping inaccessible field " + field + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return fields.toArray(new Field[fields.size()]);
+    }
+}
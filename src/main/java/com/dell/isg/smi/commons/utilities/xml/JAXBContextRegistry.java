@@ -0,0 +1,359 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+
+/**
+ * The Class JAXBContextRegistry.
+ *
+ * Process-wide registry of {@link JAXBContext} instances keyed by the set of bound classes. Contexts are expensive to create and thread-safe once built, so they are
+ * created once per class set and shared by {@link JAXBHelper}, {@link XmlHelper} and {@link XMLUtil}. Keys hold the classes and their class loaders weakly and contexts
+ * are softly reachable, so an undeployed application's classes can still be collected. The registry is bounded; the least recently used entry is evicted when full.
+ */
+public final class JAXBContextRegistry {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final ConcurrentMap<ContextKey, ContextReference> contexts = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<JAXBContext> collected = new ReferenceQueue<>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static final AtomicLong creationTimeNanos = new AtomicLong();
+
+    private static volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+
+    private JAXBContextRegistry() {
+    }
+
+
+    /**
+     * Gets the JAXB context for the given classes, creating and registering it on first use.
+     *
+     * @param classes the classes to be recognized by the context
+     * @return the JAXB context
+     * @throws JAXBException the JAXB exception
+     */
+    public static JAXBContext getContext(Class<?>... classes) throws JAXBException {
+        if (classes == null || classes.length == 0) {
+            throw new IllegalArgumentException("At least one class is required to create a JAXB context");
+        }
+        purgeCollected();
+
+        ContextKey key = new ContextKey(classes);
+        ContextReference reference = contexts.get(key);
+        JAXBContext context = reference != null ? reference.get() : null;
+        if (context != null) {
+            hits.increment();
+            long now = AccessTime.now();
+            if (AccessTime.isStale(reference.lastAccess, now)) {
+                reference.lastAccess = now;
+            }
+            return context;
+        }
+
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        // not logged here: the exception reaches the caller, which reports it with what it was binding
+        context = JAXBContext.newInstance(classes);
+        creationTimeNanos.addAndGet(System.nanoTime() - start);
+
+        ContextReference created = new ContextReference(key, context, collected);
+        created.lastAccess = AccessTime.now();
+        ContextReference existing = contexts.putIfAbsent(key, created);
+        if (existing != null) {
+            JAXBContext winner = existing.get();
+            if (winner != null) {
+                return winner;
+            }
+            contexts.replace(key, existing, created);
+        }
+        evictIfNecessary();
+        return context;
+    }
+
+
+    /**
+     * Removes every registered context. Statistics are left untouched.
+     */
+    public static void clear() {
+        contexts.clear();
+        JAXBMarshallerPool.clear();
+    }
+
+
+    /**
+     * Gets the number of registered contexts.
+     *
+     * @return the size
+     */
+    public static int size() {
+        purgeCollected();
+        return contexts.size();
+    }
+
+
+    /**
+     * Gets the maximum number of registered contexts.
+     *
+     * @return the maximum size
+     */
+    public static int getMaximumSize() {
+        return maximumSize;
+    }
+
+
+    /**
+     * Sets the maximum number of registered contexts.
+     *
+     * @param size the new maximum size
+     */
+    public static void setMaximumSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + size);
+        }
+        maximumSize = size;
+        evictIfNecessary();
+    }
+
+
+    /**
+     * Gets a snapshot of the registry statistics.
+     *
+     * @return the statistics
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.get(), evictions.get(), creationTimeNanos.get(), size());
+    }
+
+
+    /**
+     * Resets the registry statistics.
+     */
+    public static void resetStatistics() {
+        hits.reset();
+        misses.set(0);
+        evictions.set(0);
+        creationTimeNanos.set(0);
+    }
+
+
+    private static void purgeCollected() {
+        ContextReference reference;
+        while ((reference = (ContextReference) collected.poll()) != null) {
+            contexts.remove(reference.key, reference);
+        }
+    }
+
+
+    private static void evictIfNecessary() {
+        while (contexts.size() > maximumSize) {
+            ContextReference eldest = null;
+            Iterator<ContextReference> it = contexts.values().iterator();
+            while (it.hasNext()) {
+                ContextReference candidate = it.next();
+                if (eldest == null || AccessTime.isOlder(candidate.lastAccess, eldest.lastAccess)) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (contexts.remove(eldest.key, eldest)) {
+                evictions.incrementAndGet();
+                JAXBContext evicted = eldest.get();
+                if (evicted != null) {
+                    JAXBMarshallerPool.evict(evicted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Identity of a set of classes. Classes are held weakly so that the key never pins a class loader.
+     */
+    private static final class ContextKey {
+        private final List<WeakReference<Class<?>>> classes;
+        private final String[] names;
+        private final int hash;
+
+
+        ContextKey(Class<?>[] types) {
+            Class<?>[] sorted = types.clone();
+            Arrays.sort(sorted, (a, b) -> a.getName().compareTo(b.getName()));
+            this.classes = new ArrayList<>(sorted.length);
+            this.names = new String[sorted.length];
+            int h = 1;
+            for (int i = 0; i < sorted.length; i++) {
+                this.classes.add(new WeakReference<Class<?>>(sorted[i]));
+                this.names[i] = sorted[i].getName();
+                h = 31 * h + System.identityHashCode(sorted[i]);
+            }
+            this.hash = h;
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ContextKey)) {
+                return false;
+            }
+            ContextKey other = (ContextKey) obj;
+            if (hash != other.hash || classes.size() != other.classes.size()) {
+                return false;
+            }
+            for (int i = 0; i < classes.size(); i++) {
+                Class<?> mine = classes.get(i).get();
+                if (mine == null || mine != other.classes.get(i).get()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+
+        @Override
+        public String toString() {
+            return Arrays.toString(names);
+        }
+    }
+
+    /**
+     * Softly reachable context entry, remembering its key so it can be purged once collected.
+     */
+    private static final class ContextReference extends SoftReference<JAXBContext> {
+        private final ContextKey key;
+        private volatile long lastAccess;
+
+
+        ContextReference(ContextKey key, JAXBContext context, ReferenceQueue<JAXBContext> queue) {
+            super(context, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Snapshot of the registry statistics.
+     */
+    public static final class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long totalCreationTimeNanos;
+        private final int size;
+
+
+        Statistics(long hitCount, long missCount, long evictionCount, long totalCreationTimeNanos, int size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.totalCreationTimeNanos = totalCreationTimeNanos;
+            this.size = size;
+        }
+
+
+        /**
+         * Gets the number of lookups answered from the registry.
+         *
+         * @return the hit count
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+
+        /**
+         * Gets the number of lookups that had to create a context.
+         *
+         * @return the miss count
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+
+        /**
+         * Gets the number of contexts evicted because the registry was full.
+         *
+         * @return the eviction count
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+
+        /**
+         * Gets the total time spent creating contexts, in nanoseconds.
+         *
+         * @return the total creation time
+         */
+        public long getTotalCreationTimeNanos() {
+            return totalCreationTimeNanos;
+        }
+
+
+        /**
+         * Gets the average time spent creating a context, in nanoseconds.
+         *
+         * @return the average creation time
+         */
+        public long getAverageCreationTimeNanos() {
+            return missCount == 0 ? 0 : totalCreationTimeNanos / missCount;
+        }
+
+
+        /**
+         * Gets the hit rate, between 0 and 1.
+         *
+         * @return the hit rate
+         */
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+
+        /**
+         * Gets the number of registered contexts at the time of the snapshot.
+         *
+         * @return the size
+         */
+        public int getSize() {
+            return size;
+        }
+
+
+        @Override
+        public String toString() {
+            return "JAXBContextRegistry.Statistics [hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ", totalCreationTimeNanos="
+                    + totalCreationTimeNanos + ", size=" + size + "]";
+        }
+    }
+}
@@ -3,25 +3,23 @@
  */
 package com.dell.isg.smi.commons.utilities.xml;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.transform.stream.StreamSource;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.dell.isg.smi.commons.utilities.stream.ByteBufferInputStream;
 /**
  * The Class JAXBHelper.
+ *
+ * Binding goes through the {@link XmlBindingProvider} that {@link XmlBindings} selects for the class, JAXB by default.
  */
 public class JAXBHelper {
-    private static final Logger log = LoggerFactory.getLogger(JAXBHelper.class);
-
     private JAXBHelper(){}
 
     /**
@@ -34,27 +32,39 @@ public class JAXBHelper {
      * @throws JAXBException the JAXB exception
      */
     public static <T> String marshal(T instance, Class<T> clazz) throws JAXBException {
-        String document = new String();
-        ByteArrayOutputStream baos = null;
-
-        try {
-            baos = new ByteArrayOutputStream();
-            getMarshaller(clazz).marshal(instance, baos);
-            document = baos.toString();
-        } catch (JAXBException e) {
-            log.error("Unable to marshal " + clazz.getName() + " Unexpected exception thrown: " + e.getMessage(), e);
-            throw e;
-        } finally {
-            if (baos != null) {
-                try {
-                    baos.close();
-                } catch (IOException e) {
-                    log.error("Unexpected exception thrown while closing: " + e.getMessage(), e);
-                }
-            }
-        }
-
-        return document;
+        StringWriter writer = new StringWriter();
+        XmlBindings.getProvider(clazz).marshal(instance, clazz, writer);
+        return writer.toString();
+    }
+
+
+    /**
+     * Marshal to UTF-8 encoded bytes.
+     *
+     * @param <T> the generic type
+     * @param instance the instance
+     * @param clazz the clazz
+     * @return the bytes
+     * @throws JAXBException the JAXB exception
+     */
+    public static <T> byte[] marshalToBytes(T instance, Class<T> clazz) throws JAXBException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshal(instance, clazz, baos);
+        return baos.toByteArray();
+    }
+
+
+    /**
+     * Marshal as UTF-8 to an output stream, which is left open.
+     *
+     * @param <T> the generic type
+     * @param instance the instance
+     * @param clazz the clazz
+     * @param outputStream the output stream
+     * @throws JAXBException the JAXB exception
+     */
+    public static <T> void marshal(T instance, Class<T> clazz, OutputStream outputStream) throws JAXBException {
+        XmlBindings.getProvider(clazz).marshal(instance, clazz, outputStream);
     }
 
 
@@ -68,72 +78,63 @@ public class JAXBHelper {
      * @throws JAXBException the JAXB exception
      */
     public static <T> T unmarshal(String xml, Class<T> clazz) throws JAXBException {
-        JAXBElement<T> instance = null;
-        StringReader reader = null;
-        try {
-            reader = new StringReader(xml);
-            instance = getUnmarshaller(clazz).unmarshal(new StreamSource(reader), clazz);
-            reader.close();
-        } catch (JAXBException e) {
-            log.error("Unable to marshal " + clazz.getName() + " Unexpected exception thrown: " + e.getMessage(), e);
-            throw e;
-        } finally {
-            if (reader != null) {
-                reader.close();
-            }
-        }
-
-        return instance.getValue();
+        return XmlBindings.getProvider(clazz).unmarshal(new StringReader(xml), clazz);
     }
 
 
     /**
-     * Gets the marshaller.
+     * Unmarshal from bytes, decoded with the encoding declared by the document.
      *
      * @param <T> the generic type
+     * @param xml the xml
+     * @param clazz the clazz
+     * @return the t
+     * @throws JAXBException the JAXB exception
+     */
+    public static <T> T unmarshal(byte[] xml, Class<T> clazz) throws JAXBException {
+        return unmarshal(new ByteArrayInputStream(xml), clazz);
+    }
+
+
+    /**
+     * Unmarshal from bytes through the {@link UnmarshalResultCache}, so a payload identical to an earlier one is not parsed again. The returned object is shared and
+     * must not be modified.
+     *
+     * @param <T> the generic type
+     * @param xml the xml
      * @param clazz the clazz
-     * @return the marshaller
+     * @return the t
+     * @throws JAXBException the JAXB exception
      */
-    private static <T> Marshaller getMarshaller(Class<T> clazz) throws JAXBException {
-        try {
-            return getJAXBContext(clazz).createMarshaller();
-        } catch (JAXBException e) {
-            log.error("Unable to create marshaller, unexpected exception thrown: " + e.getMessage(), e);
-            throw e;
-        }
+    public static <T> T unmarshalCached(byte[] xml, Class<T> clazz) throws JAXBException {
+        return UnmarshalResultCache.unmarshal(xml, clazz);
     }
 
 
     /**
-     * Gets the unmarshaller.
+     * Unmarshal from the remaining bytes of a buffer, decoded with the encoding declared by the document. The buffer position is not changed.
      *
      * @param <T> the generic type
+     * @param xml the xml
      * @param clazz the clazz
-     * @return the unmarshaller
+     * @return the t
+     * @throws JAXBException the JAXB exception
      */
-    private static <T> Unmarshaller getUnmarshaller(Class<T> clazz) throws JAXBException {
-        try {
-            return getJAXBContext(clazz).createUnmarshaller();
-        } catch (JAXBException e) {
-            log.error("Unable to create unmarshaller, unexpected exception thrown: " + e.getMessage(), e);
-            throw e;
-        }
+    public static <T> T unmarshal(ByteBuffer xml, Class<T> clazz) throws JAXBException {
+        return unmarshal(new ByteBufferInputStream(xml), clazz);
     }
 
 
     /**
-     * Gets the JAXB context.
+     * Unmarshal from an input stream, decoded with the encoding declared by the document. The stream is not closed.
      *
      * @param <T> the generic type
+     * @param xml the xml
      * @param clazz the clazz
-     * @return the JAXB context
+     * @return the t
+     * @throws JAXBException the JAXB exception
      */
-    private static <T> JAXBContext getJAXBContext(Class<T> clazz) throws JAXBException {
-        try {
-            return JAXBContext.newInstance(clazz);
-        } catch (JAXBException e) {
-            log.error("Unable to create JAXB context, Unexpected exception thrown: " + e.getMessage(), e);
-            throw e;
-        }
+    public static <T> T unmarshal(InputStream xml, Class<T> clazz) throws JAXBException {
+        return XmlBindings.getProvider(clazz).unmarshal(xml, clazz);
     }
 }
@@ -0,0 +1,300 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class JAXBMarshallerPool.
+ *
+ * Bounded pools of preconfigured {@link Marshaller} and {@link Unmarshaller} instances per {@link JAXBContext}. Marshallers are pooled per property profile, the map of
+ * properties applied once when the marshaller is created. Callers borrow an instance, use it on a single thread and hand it back with the matching return method,
+ * normally in a finally block. Returned instances must not have had their profile properties changed; listeners, event handlers, schemas and attachment handlers are
+ * reset on return. When a pool is empty a new instance is created, and when it is full the returned instance is simply dropped. Contexts are held weakly and their
+ * pools softly, since pooled instances refer back to their context, so the pools never keep a context or its class loader alive beyond the soft reachability that
+ * {@link JAXBContextRegistry} gives it. Lookups take no global lock.
+ */
+public final class JAXBMarshallerPool {
+    private static final Logger log = LoggerFactory.getLogger(JAXBMarshallerPool.class);
+
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    /** Profile for the default marshaller configuration. */
+    public static final Map<String, Object> DEFAULT_PROPERTIES = Collections.emptyMap();
+
+    /** Profile for indented output. */
+    public static final Map<String, Object> FORMATTED_OUTPUT_PROPERTIES = Collections.<String, Object> singletonMap(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+
+    private static final ConcurrentMap<ContextKey, SoftReference<ContextPools>> pools = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<JAXBContext> collected = new ReferenceQueue<>();
+
+    private static volatile int poolSize = DEFAULT_POOL_SIZE;
+
+
+    private JAXBMarshallerPool() {
+    }
+
+
+    /**
+     * Borrows a marshaller with the default configuration.
+     *
+     * @param context the JAXB context
+     * @return the marshaller
+     * @throws JAXBException the JAXB exception
+     */
+    public static Marshaller borrowMarshaller(JAXBContext context) throws JAXBException {
+        return borrowMarshaller(context, DEFAULT_PROPERTIES);
+    }
+
+
+    /**
+     * Borrows a marshaller configured with the given property profile.
+     *
+     * @param context the JAXB context
+     * @param properties the marshaller properties
+     * @return the marshaller
+     * @throws JAXBException the JAXB exception
+     */
+    public static Marshaller borrowMarshaller(JAXBContext context, Map<String, ?> properties) throws JAXBException {
+        Marshaller marshaller = getPools(context).marshallers(properties).poll();
+        if (marshaller != null) {
+            return marshaller;
+        }
+
+        try {
+            marshaller = context.createMarshaller();
+            for (Entry<String, ?> property : properties.entrySet()) {
+                marshaller.setProperty(property.getKey(), property.getValue());
+            }
+            return marshaller;
+        } catch (JAXBException e) {
+            log.error("Unable to create marshaller, unexpected exception thrown: " + e.getMessage(), e);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Returns a marshaller borrowed with the default configuration.
+     *
+     * @param context the JAXB context
+     * @param marshaller the marshaller
+     */
+    public static void returnMarshaller(JAXBContext context, Marshaller marshaller) {
+        returnMarshaller(context, DEFAULT_PROPERTIES, marshaller);
+    }
+
+
+    /**
+     * Returns a marshaller borrowed with the given property profile.
+     *
+     * @param context the JAXB context
+     * @param properties the marshaller properties it was borrowed with
+     * @param marshaller the marshaller
+     */
+    public static void returnMarshaller(JAXBContext context, Map<String, ?> properties, Marshaller marshaller) {
+        if (marshaller == null) {
+            return;
+        }
+        try {
+            marshaller.setListener(null);
+            marshaller.setEventHandler(null);
+            marshaller.setSchema(null);
+            marshaller.setAttachmentMarshaller(null);
+        } catch (JAXBException e) {
+            log.warn("Unable to reset marshaller, discarding it: " + e.getMessage(), e);
+            return;
+        }
+        getPools(context).marshallers(properties).offer(marshaller);
+    }
+
+
+    /**
+     * Borrows an unmarshaller.
+     *
+     * @param context the JAXB context
+     * @return the unmarshaller
+     * @throws JAXBException the JAXB exception
+     */
+    public static Unmarshaller borrowUnmarshaller(JAXBContext context) throws JAXBException {
+        Unmarshaller unmarshaller = getPools(context).unmarshallers.poll();
+        if (unmarshaller != null) {
+            return unmarshaller;
+        }
+
+        try {
+            return context.createUnmarshaller();
+        } catch (JAXBException e) {
+            log.error("Unable to create unmarshaller, unexpected exception thrown: " + e.getMessage(), e);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Returns an unmarshaller.
+     *
+     * @param context the JAXB context
+     * @param unmarshaller the unmarshaller
+     */
+    public static void returnUnmarshaller(JAXBContext context, Unmarshaller unmarshaller) {
+        if (unmarshaller == null) {
+            return;
+        }
+        try {
+            unmarshaller.setListener(null);
+            unmarshaller.setEventHandler(null);
+            unmarshaller.setSchema(null);
+            unmarshaller.setAttachmentUnmarshaller(null);
+        } catch (JAXBException e) {
+            log.warn("Unable to reset unmarshaller, discarding it: " + e.getMessage(), e);
+            return;
+        }
+        getPools(context).unmarshallers.offer(unmarshaller);
+    }
+
+
+    /**
+     * Gets the maximum number of idle instances kept per context and profile.
+     *
+     * @return the pool size
+     */
+    public static int getPoolSize() {
+        return poolSize;
+    }
+
+
+    /**
+     * Sets the maximum number of idle instances kept per context and profile. Applies to pools created afterwards.
+     *
+     * @param size the new pool size
+     */
+    public static void setPoolSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        poolSize = size;
+    }
+
+
+    /**
+     * Drops the pooled instances of a context.
+     *
+     * @param context the JAXB context
+     */
+    static void evict(JAXBContext context) {
+        pools.remove(new ContextKey(context, null));
+    }
+
+
+    /**
+     * Drops every pooled instance.
+     */
+    static void clear() {
+        pools.clear();
+    }
+
+
+    private static ContextPools getPools(JAXBContext context) {
+        purgeCollected();
+        ContextKey key = new ContextKey(context, null);
+        SoftReference<ContextPools> reference = pools.get(key);
+        ContextPools contextPools = reference != null ? reference.get() : null;
+        while (contextPools == null) {
+            ContextPools created = new ContextPools();
+            SoftReference<ContextPools> createdReference = new SoftReference<>(created);
+            if (reference == null) {
+                reference = pools.putIfAbsent(new ContextKey(context, collected), createdReference);
+                if (reference == null) {
+                    return created;
+                }
+            } else if (pools.replace(key, reference, createdReference)) {
+                return created;
+            } else {
+                reference = pools.get(key);
+            }
+            contextPools = reference != null ? reference.get() : null;
+        }
+        return contextPools;
+    }
+
+
+    private static void purgeCollected() {
+        ContextKey key;
+        while ((key = (ContextKey) collected.poll()) != null) {
+            pools.remove(key);
+        }
+    }
+
+    /**
+     * Identity of a context, held weakly.
+     */
+    private static final class ContextKey extends WeakReference<JAXBContext> {
+        private final int hash;
+
+
+        ContextKey(JAXBContext context, ReferenceQueue<JAXBContext> queue) {
+            super(context, queue);
+            this.hash = System.identityHashCode(context);
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ContextKey)) {
+                return false;
+            }
+            JAXBContext context = get();
+            return context != null && context == ((ContextKey) obj).get();
+        }
+    }
+
+    /**
+     * Idle instances of a single context.
+     */
+    private static final class ContextPools {
+        private final ConcurrentMap<Map<String, ?>, BlockingQueue<Marshaller>> marshallers = new ConcurrentHashMap<>();
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(poolSize);
+
+
+        BlockingQueue<Marshaller> marshallers(Map<String, ?> properties) {
+            BlockingQueue<Marshaller> queue = marshallers.get(properties);
+            if (queue == null) {
+                BlockingQueue<Marshaller> created = new ArrayBlockingQueue<>(poolSize);
+                queue = marshallers.putIfAbsent(new HashMap<String, Object>(properties), created);
+                if (queue == null) {
+                    queue = created;
+                }
+            }
+            return queue;
+        }
+    }
+}
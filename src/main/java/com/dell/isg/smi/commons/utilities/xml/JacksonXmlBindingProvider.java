@@ -0,0 +1,240 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.MarshalException;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
+import com.fasterxml.jackson.dataformat.xml.XmlFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.jaxb.XmlJaxbAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+
+/**
+ * The Class JacksonXmlBindingProvider.
+ *
+ * An {@link XmlBindingProvider} backed by Jackson's XML dataformat. It reads the JAXB annotations of the model classes, with Jackson XML annotations as a fallback,
+ * and is configured to follow JAXB defaults: collections are not wrapped, unknown elements are ignored and the XML declaration is written. It avoids the per-call
+ * overhead of the JAXB runtime, which shows on small, frequent payloads, but it covers the common subset of JAXB mappings rather than all of them, so a class should
+ * be checked with both providers before it is switched. Readers and writers are resolved once per class.
+ */
+public final class JacksonXmlBindingProvider implements XmlBindingProvider {
+
+    /** The shared instance. */
+    public static final JacksonXmlBindingProvider INSTANCE = new JacksonXmlBindingProvider();
+
+    private final XmlMapper mapper;
+
+    private final ClassValue<ObjectReader> readers = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return mapper.readerFor(type).without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        }
+    };
+
+    private final ClassValue<ObjectWriter> writers = new ClassValue<ObjectWriter>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+    };
+
+
+    /**
+     * Instantiates a new provider configured to follow JAXB defaults.
+     */
+    public JacksonXmlBindingProvider() {
+        this(createMapper());
+    }
+
+
+    /**
+     * Instantiates a new provider with a custom mapper, which must not be reconfigured afterwards.
+     *
+     * @param mapper the mapper
+     */
+    public JacksonXmlBindingProvider(XmlMapper mapper) {
+        this.mapper = mapper;
+    }
+
+
+    @Override
+    public String getName() {
+        return "jackson-xml";
+    }
+
+
+    @Override
+    public <T> void marshal(T instance, Class<T> type, OutputStream outputStream) throws JAXBException {
+        try {
+            writers.get(type).writeValue(outputStream, instance);
+        } catch (IOException e) {
+            throw new MarshalException(e);
+        }
+    }
+
+
+    @Override
+    public <T> void marshal(T instance, Class<T> type, Writer writer) throws JAXBException {
+        try {
+            writers.get(type).writeValue(writer, instance);
+        } catch (IOException e) {
+            throw new MarshalException(e);
+        }
+    }
+
+
+    @Override
+    public <T> T unmarshal(InputStream inputStream, Class<T> type) throws JAXBException {
+        try {
+            return readers.get(type).readValue(inputStream);
+        } catch (IOException e) {
+            throw new UnmarshalException(e);
+        }
+    }
+
+
+    @Override
+    public <T> T unmarshal(Reader reader, Class<T> type) throws JAXBException {
+        try {
+            return readers.get(type).readValue(reader);
+        } catch (IOException e) {
+            throw new UnmarshalException(e);
+        }
+    }
+
+
+    @Override
+    public <T> Stream<T> stream(InputStream inputStream, QName elementName, Class<T> type) throws XMLStreamException {
+        ElementIterator<T> iterator = new ElementIterator<T>(inputStream, elementName, type);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+
+    private static XmlMapper createMapper() {
+        JacksonXmlModule module = new JacksonXmlModule();
+        module.setDefaultUseWrapper(false);
+        // XmlFactory switches on coalescing and namespace repairing in the factories it is given, so it gets its own rather than the shared ones
+        XmlMapper mapper = new XmlMapper(new XmlFactory(StaxFactories.newInputFactory(), StaxFactories.newOutputFactory()), module);
+        mapper.setAnnotationIntrospector(AnnotationIntrospector.pair(new XmlJaxbAnnotationIntrospector(TypeFactory.defaultInstance()),
+                new JacksonXmlAnnotationIntrospector()));
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.enable(ToXmlGenerator.Feature.WRITE_XML_DECLARATION);
+        return mapper;
+    }
+
+    /**
+     * Reads the matching elements of a StAX cursor one at a time, leaving the cursor on each element's end tag.
+     */
+    private final class ElementIterator<T> implements Iterator<T> {
+        private final InputStream inputStream;
+        private final XMLStreamReader reader;
+        private final QName elementName;
+        private final boolean matchNamespace;
+        private final Class<T> type;
+        private T nextElement;
+        private boolean closed;
+
+
+        ElementIterator(InputStream inputStream, QName elementName, Class<T> type) throws XMLStreamException {
+            this.inputStream = inputStream;
+            this.elementName = elementName;
+            this.matchNamespace = !XMLConstants.NULL_NS_URI.equals(elementName.getNamespaceURI());
+            this.type = type;
+            try {
+                this.reader = mapper.getFactory().getXMLInputFactory().createXMLStreamReader(inputStream);
+            } catch (XMLStreamException e) {
+                StreamUtils.closeStreamQuietly(inputStream);
+                throw e;
+            }
+        }
+
+
+        @Override
+        public boolean hasNext() {
+            if (nextElement != null) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                while (reader.hasNext()) {
+                    if (reader.isStartElement() && matches(reader.getName())) {
+                        // the parser reads the element up to its end tag and leaves the cursor there
+                        nextElement = readers.get(type).readValue(mapper.getFactory().createParser(reader));
+                        return true;
+                    }
+                    reader.next();
+                }
+            } catch (IOException | XMLStreamException e) {
+                close();
+                throw new DataBindingException(e);
+            }
+            close();
+            return false;
+        }
+
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T element = nextElement;
+            nextElement = null;
+            return element;
+        }
+
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // the input stream is closed below regardless
+            }
+            StreamUtils.closeStreamQuietly(inputStream);
+        }
+
+
+        private boolean matches(QName name) {
+            if (!elementName.getLocalPart().equals(name.getLocalPart())) {
+                return false;
+            }
+            return !matchNamespace || elementName.getNamespaceURI().equals(name.getNamespaceURI());
+        }
+    }
+}
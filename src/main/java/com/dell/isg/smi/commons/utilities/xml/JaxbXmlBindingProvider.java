@@ -0,0 +1,104 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.stream.Stream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class JaxbXmlBindingProvider.
+ *
+ * The default {@link XmlBindingProvider}, backed by the JAXB runtime with contexts from {@link JAXBContextRegistry} and pooled marshallers and unmarshallers.
+ */
+public final class JaxbXmlBindingProvider implements XmlBindingProvider {
+    private static final Logger log = LoggerFactory.getLogger(JaxbXmlBindingProvider.class);
+
+    /** The shared instance. */
+    public static final JaxbXmlBindingProvider INSTANCE = new JaxbXmlBindingProvider();
+
+
+    private JaxbXmlBindingProvider() {
+    }
+
+
+    @Override
+    public String getName() {
+        return "jaxb";
+    }
+
+
+    @Override
+    public <T> void marshal(T instance, Class<T> type, OutputStream outputStream) throws JAXBException {
+        marshal(instance, type, new StreamResult(outputStream));
+    }
+
+
+    @Override
+    public <T> void marshal(T instance, Class<T> type, Writer writer) throws JAXBException {
+        marshal(instance, type, new StreamResult(writer));
+    }
+
+
+    @Override
+    public <T> T unmarshal(InputStream inputStream, Class<T> type) throws JAXBException {
+        return unmarshal(new StreamSource(inputStream), type);
+    }
+
+
+    @Override
+    public <T> T unmarshal(Reader reader, Class<T> type) throws JAXBException {
+        return unmarshal(new StreamSource(reader), type);
+    }
+
+
+    @Override
+    public <T> Stream<T> stream(InputStream inputStream, QName elementName, Class<T> type) throws JAXBException, XMLStreamException {
+        return new XmlElementIterator<T>(inputStream, elementName, type).stream();
+    }
+
+
+    private static <T> void marshal(T instance, Class<T> type, Result result) throws JAXBException {
+        JAXBContext context = JAXBContextRegistry.getContext(type);
+        Marshaller marshaller = JAXBMarshallerPool.borrowMarshaller(context);
+        try {
+            marshaller.marshal(instance, result);
+        } catch (JAXBException e) {
+            log.error("Unable to marshal " + type.getName() + " Unexpected exception thrown: " + e.getMessage(), e);
+            throw e;
+        } finally {
+            JAXBMarshallerPool.returnMarshaller(context, marshaller);
+        }
+    }
+
+
+    private static <T> T unmarshal(Source source, Class<T> type) throws JAXBException {
+        JAXBContext context = JAXBContextRegistry.getContext(type);
+        Unmarshaller unmarshaller = JAXBMarshallerPool.borrowUnmarshaller(context);
+        try {
+            return unmarshaller.unmarshal(source, type).getValue();
+        } catch (JAXBException e) {
+            log.error("Unable to unmarshal " + type.getName() + " Unexpected exception thrown: " + e.getMessage(), e);
+            throw e;
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(context, unmarshaller);
+        }
+    }
+}
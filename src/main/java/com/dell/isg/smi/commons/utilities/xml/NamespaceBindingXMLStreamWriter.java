@@ -0,0 +1,300 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * The Class NamespaceBindingXMLStreamWriter.
+ *
+ * Delegating {@link XMLStreamWriter} that binds a fixed set of prefixes and declares them on the root element as it is written, so marshalled output carries the
+ * requested prefixes in a single pass. Redundant declarations of the same bindings on the root element and empty default namespace declarations ({@code xmlns=""}) are
+ * dropped, unless the bindings include a default namespace.
+ */
+public class NamespaceBindingXMLStreamWriter implements XMLStreamWriter {
+    private final XMLStreamWriter delegate;
+    private final Map<String, String> bindings;
+    private final boolean bindsDefaultNamespace;
+    private final Set<String> rootDeclarations = new HashSet<>();
+
+    private boolean rootWritten;
+    private boolean inRootStartTag;
+
+
+    /**
+     * Instantiates a new namespace binding XML stream writer.
+     *
+     * @param delegate the delegate
+     * @param bindings the namespace URI of each prefix
+     * @throws XMLStreamException the XML stream exception
+     */
+    public NamespaceBindingXMLStreamWriter(XMLStreamWriter delegate, Map<String, String> bindings) throws XMLStreamException {
+        this.delegate = delegate;
+        this.bindings = new LinkedHashMap<>(bindings);
+        this.bindsDefaultNamespace = bindings.containsKey(XMLConstants.DEFAULT_NS_PREFIX);
+        for (Entry<String, String> binding : this.bindings.entrySet()) {
+            if (XMLConstants.DEFAULT_NS_PREFIX.equals(binding.getKey())) {
+                delegate.setDefaultNamespace(binding.getValue());
+            } else {
+                delegate.setPrefix(binding.getKey(), binding.getValue());
+            }
+        }
+    }
+
+
+    private void beforeStartElement() {
+        inRootStartTag = false;
+    }
+
+
+    private void afterStartElement() throws XMLStreamException {
+        if (rootWritten) {
+            return;
+        }
+        rootWritten = true;
+        inRootStartTag = true;
+        for (Entry<String, String> binding : bindings.entrySet()) {
+            if (XMLConstants.DEFAULT_NS_PREFIX.equals(binding.getKey())) {
+                delegate.writeDefaultNamespace(binding.getValue());
+            } else {
+                delegate.writeNamespace(binding.getKey(), binding.getValue());
+            }
+            rootDeclarations.add(binding.getKey());
+        }
+    }
+
+
+    private boolean isRedundant(String prefix, String namespaceURI) {
+        String normalizedPrefix = prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix;
+        if (XMLConstants.DEFAULT_NS_PREFIX.equals(normalizedPrefix) && (namespaceURI == null || namespaceURI.isEmpty()) && !bindsDefaultNamespace) {
+            return true;
+        }
+        return inRootStartTag && rootDeclarations.contains(normalizedPrefix) && namespaceURI != null && namespaceURI.equals(bindings.get(normalizedPrefix));
+    }
+
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        beforeStartElement();
+        delegate.writeStartElement(localName);
+        afterStartElement();
+    }
+
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        beforeStartElement();
+        delegate.writeStartElement(namespaceURI, localName);
+        afterStartElement();
+    }
+
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        beforeStartElement();
+        delegate.writeStartElement(prefix, localName, namespaceURI);
+        afterStartElement();
+    }
+
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        beforeStartElement();
+        delegate.writeEmptyElement(namespaceURI, localName);
+        afterStartElement();
+    }
+
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        beforeStartElement();
+        delegate.writeEmptyElement(prefix, localName, namespaceURI);
+        afterStartElement();
+    }
+
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        beforeStartElement();
+        delegate.writeEmptyElement(localName);
+        afterStartElement();
+    }
+
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeEndElement();
+    }
+
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        delegate.writeEndDocument();
+    }
+
+
+    @Override
+    public void close() throws XMLStreamException {
+        delegate.close();
+    }
+
+
+    @Override
+    public void flush() throws XMLStreamException {
+        delegate.flush();
+    }
+
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        delegate.writeAttribute(localName, value);
+    }
+
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        delegate.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        delegate.writeAttribute(namespaceURI, localName, value);
+    }
+
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if (!isRedundant(prefix, namespaceURI)) {
+            delegate.writeNamespace(prefix, namespaceURI);
+        }
+    }
+
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        if (!isRedundant(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI)) {
+            delegate.writeDefaultNamespace(namespaceURI);
+        }
+    }
+
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeComment(data);
+    }
+
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeProcessingInstruction(target);
+    }
+
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeProcessingInstruction(target, data);
+    }
+
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeCData(data);
+    }
+
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        delegate.writeDTD(dtd);
+    }
+
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeEntityRef(name);
+    }
+
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        delegate.writeStartDocument();
+    }
+
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        delegate.writeStartDocument(version);
+    }
+
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        delegate.writeStartDocument(encoding, version);
+    }
+
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeCharacters(text);
+    }
+
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        inRootStartTag = false;
+        delegate.writeCharacters(text, start, len);
+    }
+
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return delegate.getPrefix(uri);
+    }
+
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        delegate.setPrefix(prefix, uri);
+    }
+
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        delegate.setDefaultNamespace(uri);
+    }
+
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        delegate.setNamespaceContext(context);
+    }
+
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return delegate.getNamespaceContext();
+    }
+
+
+    @Override
+    public Object getProperty(String name) {
+        return delegate.getProperty(name);
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.xml.sax.SAXException;
+
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+
+/**
+ * The Class SchemaCache.
+ *
+ * Cache of compiled W3C XML schemas. Schemas read from a stream are keyed by a SHA-256 hash of their content and schemas loaded from a URL by the URL, so each XSD is
+ * compiled once. A compiled {@link Schema} is thread-safe and can be set on an unmarshaller to validate while unmarshalling; standalone validation uses pooled
+ * {@link Validator}s, which are not thread-safe. The number of cached schemas is bounded; the least recently used schema and its validators are evicted when full.
+ */
+public final class SchemaCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+    private static final int VALIDATORS_PER_SCHEMA = 8;
+
+    private static final SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+    private static final ConcurrentMap<String, CachedSchema> schemas = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Schema, BlockingQueue<Validator>> validators = new ConcurrentHashMap<>();
+
+    private static volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+
+    private SchemaCache() {
+    }
+
+
+    /**
+     * Gets the compiled schema for the content of a stream. The stream is read fully but not closed.
+     *
+     * @param schemaFile the schema file
+     * @return the schema
+     * @throws SAXException the SAX exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static Schema getSchema(InputStream schemaFile) throws SAXException, IOException {
+        return getSchema(StreamUtils.readFully(schemaFile));
+    }
+
+
+    /**
+     * Gets the compiled schema for the given schema content.
+     *
+     * @param schemaContent the schema content
+     * @return the schema
+     * @throws SAXException the SAX exception
+     */
+    public static Schema getSchema(byte[] schemaContent) throws SAXException {
+        String key = "sha256:" + hash(schemaContent);
+        Schema schema = lookup(key);
+        if (schema == null) {
+            schema = register(key, compile(new StreamSource(new ByteArrayInputStream(schemaContent))));
+        }
+        return schema;
+    }
+
+
+    /**
+     * Gets the compiled schema located at a URL. Relative imports and includes are resolved against the URL.
+     *
+     * @param schemaUrl the schema url
+     * @return the schema
+     * @throws SAXException the SAX exception
+     */
+    public static Schema getSchema(URL schemaUrl) throws SAXException {
+        String key = "url:" + schemaUrl.toExternalForm();
+        Schema schema = lookup(key);
+        if (schema == null) {
+            schema = register(key, compile(new StreamSource(schemaUrl.toExternalForm())));
+        }
+        return schema;
+    }
+
+
+    /**
+     * Validates a source against a schema using a pooled validator.
+     *
+     * @param schema the schema
+     * @param source the source
+     * @throws SAXException the SAX exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static void validate(Schema schema, Source source) throws SAXException, IOException {
+        BlockingQueue<Validator> pool = validators.get(schema);
+        Validator validator = pool != null ? pool.poll() : null;
+        if (validator == null) {
+            validator = schema.newValidator();
+        }
+        try {
+            validator.validate(source);
+        } finally {
+            validator.reset();
+            if (pool != null) {
+                pool.offer(validator);
+            }
+        }
+    }
+
+
+    /**
+     * Gets the number of cached schemas.
+     *
+     * @return the size
+     */
+    public static int size() {
+        return schemas.size();
+    }
+
+
+    /**
+     * Sets the maximum number of cached schemas.
+     *
+     * @param size the new maximum size
+     */
+    public static void setMaximumSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + size);
+        }
+        maximumSize = size;
+        evictIfNecessary();
+    }
+
+
+    /**
+     * Removes every cached schema.
+     */
+    public static void clear() {
+        schemas.clear();
+        validators.clear();
+    }
+
+
+    private static Schema compile(Source source) throws SAXException {
+        // SchemaFactory is not thread-safe
+        synchronized (schemaFactory) {
+            return schemaFactory.newSchema(source);
+        }
+    }
+
+
+    private static Schema lookup(String key) {
+        CachedSchema cached = schemas.get(key);
+        if (cached == null) {
+            return null;
+        }
+        long now = AccessTime.now();
+        if (AccessTime.isStale(cached.lastAccess, now)) {
+            cached.lastAccess = now;
+        }
+        return cached.schema;
+    }
+
+
+    private static Schema register(String key, Schema schema) {
+        validators.put(schema, new ArrayBlockingQueue<Validator>(VALIDATORS_PER_SCHEMA));
+        CachedSchema existing = schemas.putIfAbsent(key, new CachedSchema(schema));
+        if (existing != null) {
+            validators.remove(schema);
+            return existing.schema;
+        }
+        evictIfNecessary();
+        return schema;
+    }
+
+
+    private static void evictIfNecessary() {
+        while (schemas.size() > maximumSize) {
+            String eldest = null;
+            CachedSchema eldestEntry = null;
+            for (Entry<String, CachedSchema> candidate : schemas.entrySet()) {
+                if (eldestEntry == null || AccessTime.isOlder(candidate.getValue().lastAccess, eldestEntry.lastAccess)) {
+                    eldest = candidate.getKey();
+                    eldestEntry = candidate.getValue();
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (schemas.remove(eldest, eldestEntry)) {
+                validators.remove(eldestEntry.schema);
+            }
+        }
+    }
+
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Compiled schema with its last access.
+     */
+    private static final class CachedSchema {
+        private final Schema schema;
+        private volatile long lastAccess = AccessTime.now();
+
+
+        CachedSchema(Schema schema) {
+            this.schema = schema;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+
+/**
+ * The Class SimpleXmlPath.
+ *
+ * A minimal element path such as {@code Envelope/Body/Item} or {@code InstanceID}. A path starting with {@code /} is anchored at the root element; otherwise it matches
+ * any element whose ancestors end with the given steps. Steps are compared with the local name, or with the prefixed name when the step contains a colon, and {@code *}
+ * matches any element.
+ */
+final class SimpleXmlPath {
+    private final String expression;
+    private final String[] steps;
+    private final boolean absolute;
+
+
+    /**
+     * Instantiates a new simple xml path.
+     *
+     * @param expression the expression
+     */
+    SimpleXmlPath(String expression) {
+        String trimmed = expression.trim();
+        this.expression = expression;
+        this.absolute = trimmed.startsWith("/");
+        String relative = absolute ? trimmed.substring(1) : trimmed;
+        if (relative.isEmpty()) {
+            throw new IllegalArgumentException("Empty element path: " + expression);
+        }
+        this.steps = relative.split("/");
+        for (String step : steps) {
+            if (step.isEmpty()) {
+                throw new IllegalArgumentException("Empty step in element path: " + expression);
+            }
+        }
+    }
+
+
+    /**
+     * Gets the expression.
+     *
+     * @return the expression
+     */
+    String getExpression() {
+        return expression;
+    }
+
+
+    /**
+     * Gets the number of steps.
+     *
+     * @return the depth
+     */
+    int getDepth() {
+        return steps.length;
+    }
+
+
+    /**
+     * Tests whether the innermost element of an element stack is selected by this path.
+     *
+     * @param elements the open elements, root first
+     * @return true, if the innermost element matches
+     */
+    boolean matches(List<QName> elements) {
+        int size = elements.size();
+        if (size < steps.length || absolute && size != steps.length) {
+            return false;
+        }
+        for (int i = 0; i < steps.length; i++) {
+            if (!matches(steps[steps.length - 1 - i], elements.get(size - 1 - i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Tests whether this path could still select a descendant of the innermost element of an element stack.
+     *
+     * @param elements the open elements, root first
+     * @return true, if a descendant may match
+     */
+    boolean mayMatchBelow(List<QName> elements) {
+        if (!absolute) {
+            return true;
+        }
+        int size = elements.size();
+        if (size >= steps.length) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!matches(steps[i], elements.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static boolean matches(String step, QName element) {
+        if ("*".equals(step)) {
+            return true;
+        }
+        if (step.indexOf(':') < 0) {
+            return step.equals(element.getLocalPart());
+        }
+        String prefix = element.getPrefix();
+        return !XMLConstants.DEFAULT_NS_PREFIX.equals(prefix) && step.equals(prefix + ':' + element.getLocalPart());
+    }
+
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+/**
+ * The Class StaxFactories.
+ *
+ * Shared StAX factories. Factory lookup is expensive and configured factories are safe to share for creating readers and writers, so they are built once. The input
+ * factory refuses DTDs and external entities, matching the XXE hardening of {@link NullXmlEntityResolver}. The shared instances must not be reconfigured; components that
+ * need different properties, such as Jackson's XML factory, take their own instances from {@link #newInputFactory()} and {@link #newOutputFactory()}.
+ */
+final class StaxFactories {
+    private static final XMLInputFactory inputFactory = newInputFactory();
+    private static final XMLOutputFactory outputFactory = newOutputFactory();
+
+
+    private StaxFactories() {
+    }
+
+
+    /**
+     * Gets the hardened input factory.
+     *
+     * @return the input factory
+     */
+    static XMLInputFactory getInputFactory() {
+        return inputFactory;
+    }
+
+
+    /**
+     * Gets the output factory.
+     *
+     * @return the output factory
+     */
+    static XMLOutputFactory getOutputFactory() {
+        return outputFactory;
+    }
+
+
+    /**
+     * Creates a new input factory with the same hardening as the shared one, for callers that configure it further.
+     *
+     * @return the input factory
+     */
+    static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+
+    /**
+     * Creates a new output factory, for callers that configure it further.
+     *
+     * @return the output factory
+     */
+    static XMLOutputFactory newOutputFactory() {
+        return XMLOutputFactory.newInstance();
+    }
+}
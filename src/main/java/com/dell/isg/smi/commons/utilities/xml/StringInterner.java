@@ -0,0 +1,138 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Class StringInterner.
+ *
+ * A bounded, lossy table for sharing equal strings, such as the vendor names, FQDD prefixes and status values repeated throughout an inventory. Each string hashes
+ * to one slot; an equal string already in the slot is returned in its place, otherwise the slot is overwritten. The table never grows, never blocks and holds at most
+ * one string per slot, so unlike {@link String#intern()} it cannot fill up. Strings longer than the length limit are passed through, as they rarely repeat.
+ */
+public final class StringInterner {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_MAXIMUM_LENGTH = 256;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int maximumLength;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+
+    /**
+     * Instantiates a new string interner with the default capacity and length limit.
+     */
+    public StringInterner() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAXIMUM_LENGTH);
+    }
+
+
+    /**
+     * Instantiates a new string interner.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param maximumLength the length of the longest string to intern
+     */
+    public StringInterner(int capacity, int maximumLength) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maximumLength = maximumLength;
+    }
+
+
+    /**
+     * Returns an equal string already held by the table, or holds and returns the given string.
+     *
+     * @param value the value
+     * @return the shared value
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maximumLength) {
+            return value;
+        }
+        lookups.increment();
+        int hash = value.hashCode();
+        int slot = (hash ^ hash >>> 16) & mask;
+        String existing = table.get(slot);
+        if (existing != null && existing.equals(value)) {
+            if (existing != value) {
+                hits.increment();
+                bytesSaved.add(estimateSize(value));
+            }
+            return existing;
+        }
+        table.set(slot, value);
+        return value;
+    }
+
+
+    /**
+     * Gets the number of strings looked up.
+     *
+     * @return the lookup count
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+
+    /**
+     * Gets the number of strings replaced by an equal instance from the table.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+
+    /**
+     * Gets the estimated heap released by replacing duplicate strings, assuming each replaced instance is otherwise unreachable.
+     *
+     * @return the estimated bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+
+    /**
+     * Empties the table and resets the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, null);
+        }
+        lookups.reset();
+        hits.reset();
+        bytesSaved.reset();
+    }
+
+
+    /**
+     * Estimates the footprint of a string on a 64-bit JVM with compressed references: the string object and its character array, each aligned to 8 bytes.
+     */
+    private static long estimateSize(String value) {
+        return 24 + (16 + 2L * value.length() + 7 & ~7L);
+    }
+
+
+    @Override
+    public String toString() {
+        return "StringInterner [lookups=" + getLookupCount() + ", hits=" + getHitCount() + ", bytesSaved=" + getBytesSaved() + "]";
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.net.URL;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * The Class TransformerCache.
+ *
+ * Shared XSLT machinery. A single secure-processing {@link TransformerFactory} compiles each stylesheet once into thread-safe {@link Templates}, registered by name or by
+ * URL; the {@link Transformer}s created from them, and the identity transformers used for serialization, are not thread-safe and are pooled, reset before reuse.
+ * Stylesheets registered by name stay until they are replaced or cleared. Stylesheets compiled on demand from a URL are bounded; the least recently used one is evicted
+ * when full.
+ */
+public final class TransformerCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+    private static final int TRANSFORMERS_PER_TEMPLATES = 8;
+
+    private static final TransformerFactory transformerFactory = createFactory();
+
+    private static final BlockingQueue<Transformer> identityTransformers = new ArrayBlockingQueue<>(TRANSFORMERS_PER_TEMPLATES);
+    private static final ConcurrentMap<String, Templates> templates = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CachedTemplates> urlTemplates = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Templates, BlockingQueue<Transformer>> transformers = new ConcurrentHashMap<>();
+
+    private static volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+
+    private TransformerCache() {
+    }
+
+
+    /**
+     * Copies a source to a result unchanged, for example to serialize a DOM node to a stream or writer.
+     *
+     * @param source the source
+     * @param result the result
+     * @throws TransformerException the transformer exception
+     */
+    public static void serialize(Source source, Result result) throws TransformerException {
+        Transformer transformer = identityTransformers.poll();
+        if (transformer == null) {
+            synchronized (transformerFactory) {
+                transformer = transformerFactory.newTransformer();
+            }
+        }
+        try {
+            transformer.transform(source, result);
+        } finally {
+            transformer.reset();
+            identityTransformers.offer(transformer);
+        }
+    }
+
+
+    /**
+     * Compiles a stylesheet and registers it under a name, replacing any stylesheet previously registered under that name.
+     *
+     * @param name the name
+     * @param stylesheet the stylesheet
+     * @return the compiled stylesheet
+     * @throws TransformerConfigurationException the transformer configuration exception
+     */
+    public static Templates registerStylesheet(String name, Source stylesheet) throws TransformerConfigurationException {
+        Templates compiled = compile(stylesheet);
+        transformers.put(compiled, new ArrayBlockingQueue<Transformer>(TRANSFORMERS_PER_TEMPLATES));
+        Templates previous = templates.put(name, compiled);
+        if (previous != null) {
+            transformers.remove(previous);
+        }
+        return compiled;
+    }
+
+
+    /**
+     * Gets a stylesheet registered by name, or else a stylesheet cached for the URL with that external form.
+     *
+     * @param name the name
+     * @return the compiled stylesheet, or null if none is registered under that name
+     */
+    public static Templates getStylesheet(String name) {
+        Templates compiled = templates.get(name);
+        if (compiled == null) {
+            CachedTemplates cached = urlTemplates.get(name);
+            if (cached != null) {
+                compiled = touch(cached);
+            }
+        }
+        return compiled;
+    }
+
+
+    /**
+     * Gets the stylesheet located at a URL, compiling and caching it on first use.
+     *
+     * @param stylesheetUrl the stylesheet url
+     * @return the compiled stylesheet
+     * @throws TransformerConfigurationException the transformer configuration exception
+     */
+    public static Templates getStylesheet(URL stylesheetUrl) throws TransformerConfigurationException {
+        String name = stylesheetUrl.toExternalForm();
+        CachedTemplates cached = urlTemplates.get(name);
+        if (cached != null) {
+            return touch(cached);
+        }
+        Templates compiled = compile(new StreamSource(name));
+        transformers.put(compiled, new ArrayBlockingQueue<Transformer>(TRANSFORMERS_PER_TEMPLATES));
+        CachedTemplates existing = urlTemplates.putIfAbsent(name, new CachedTemplates(compiled));
+        if (existing != null) {
+            transformers.remove(compiled);
+            return touch(existing);
+        }
+        evictIfNecessary();
+        return compiled;
+    }
+
+
+    /**
+     * Applies a stylesheet registered by name, or else a stylesheet cached for the URL with that external form.
+     *
+     * @param name the name
+     * @param source the source
+     * @param result the result
+     * @throws TransformerException the transformer exception
+     */
+    public static void transform(String name, Source source, Result result) throws TransformerException {
+        Templates compiled = getStylesheet(name);
+        if (compiled == null) {
+            throw new TransformerConfigurationException("No stylesheet registered as " + name);
+        }
+        transform(compiled, source, result);
+    }
+
+
+    /**
+     * Applies a compiled stylesheet, using a pooled transformer when the stylesheet is registered.
+     *
+     * @param stylesheet the stylesheet
+     * @param source the source
+     * @param result the result
+     * @throws TransformerException the transformer exception
+     */
+    public static void transform(Templates stylesheet, Source source, Result result) throws TransformerException {
+        BlockingQueue<Transformer> pool = transformers.get(stylesheet);
+        Transformer transformer = pool != null ? pool.poll() : null;
+        if (transformer == null) {
+            transformer = stylesheet.newTransformer();
+        }
+        try {
+            transformer.transform(source, result);
+        } finally {
+            transformer.reset();
+            if (pool != null) {
+                pool.offer(transformer);
+            }
+        }
+    }
+
+
+    /**
+     * Sets the maximum number of stylesheets cached by URL. Stylesheets registered by name do not count.
+     *
+     * @param size the new maximum size
+     */
+    public static void setMaximumSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + size);
+        }
+        maximumSize = size;
+        evictIfNecessary();
+    }
+
+
+    /**
+     * Removes every registered stylesheet.
+     */
+    public static void clear() {
+        templates.clear();
+        urlTemplates.clear();
+        transformers.clear();
+    }
+
+
+    private static Templates compile(Source stylesheet) throws TransformerConfigurationException {
+        // TransformerFactory is not thread-safe
+        synchronized (transformerFactory) {
+            return transformerFactory.newTemplates(stylesheet);
+        }
+    }
+
+
+    private static Templates touch(CachedTemplates cached) {
+        long now = AccessTime.now();
+        if (AccessTime.isStale(cached.lastAccess, now)) {
+            cached.lastAccess = now;
+        }
+        return cached.compiled;
+    }
+
+
+    private static void evictIfNecessary() {
+        while (urlTemplates.size() > maximumSize) {
+            String eldest = null;
+            CachedTemplates eldestEntry = null;
+            for (Entry<String, CachedTemplates> candidate : urlTemplates.entrySet()) {
+                if (eldestEntry == null || AccessTime.isOlder(candidate.getValue().lastAccess, eldestEntry.lastAccess)) {
+                    eldest = candidate.getKey();
+                    eldestEntry = candidate.getValue();
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (urlTemplates.remove(eldest, eldestEntry)) {
+                transformers.remove(eldestEntry.compiled);
+            }
+        }
+    }
+
+
+    private static TransformerFactory createFactory() {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("Unable to enable secure processing on " + factory.getClass().getName(), e);
+        }
+        return factory;
+    }
+
+    /**
+     * Stylesheet compiled from a URL, with its last access.
+     */
+    private static final class CachedTemplates {
+        private final Templates compiled;
+        private volatile long lastAccess = AccessTime.now();
+
+
+        CachedTemplates(Templates compiled) {
+            this.compiled = compiled;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.bind.JAXBException;
+
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+
+/**
+ * The Class UnmarshalResultCache.
+ *
+ * Opt-in cache of unmarshalled objects for payloads that repeat byte for byte, such as an inventory polled every few minutes. Entries are keyed by the 64-bit xxHash
+ * and length of the payload together with the bound classes; when a payload matches, the cached object is returned without parsing. Cached objects are shared by
+ * every caller that receives them and must be treated as immutable. Entries expire after a time to live and the least recently used entry is evicted when the cache
+ * is full; expired entries, and entries whose results have been collected, are swept whenever a result is stored. Keys hold the bound classes weakly and results are
+ * softly reachable, so under memory pressure a cached result, and with it the class loader of its classes, can be collected.
+ */
+public final class UnmarshalResultCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private static final ConcurrentMap<ResultKey, CachedResult> results = new ConcurrentHashMap<>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static final AtomicLong expirations = new AtomicLong();
+
+    private static volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private static volatile long timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIME_TO_LIVE_MILLIS);
+
+
+    private UnmarshalResultCache() {
+    }
+
+
+    /**
+     * Unmarshals a payload, or returns the object unmarshalled from an identical payload earlier.
+     *
+     * @param <T> the generic type
+     * @param xml the xml
+     * @param clazz the clazz
+     * @return the shared, read-only object
+     * @throws JAXBException the JAXB exception
+     */
+    public static <T> T unmarshal(byte[] xml, Class<T> clazz) throws JAXBException {
+        ResultKey key = new ResultKey(xml, new Class<?>[] { clazz }, true);
+        Object cached = lookup(key);
+        if (cached != null) {
+            return clazz.cast(cached);
+        }
+        T result = JAXBHelper.unmarshal(xml, clazz);
+        store(key, result);
+        return result;
+    }
+
+
+    /**
+     * Unmarshals the content of a stream, or returns the object unmarshalled from an identical payload earlier. The stream is read fully but not closed.
+     *
+     * @param <T> the generic type
+     * @param xml the xml
+     * @param clazz the clazz
+     * @return the shared, read-only object
+     * @throws JAXBException the JAXB exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static <T> T unmarshal(InputStream xml, Class<T> clazz) throws JAXBException, IOException {
+        return unmarshal(StreamUtils.readFully(xml), clazz);
+    }
+
+
+    /**
+     * Parses a payload with the given JAXB model classes, or returns the object parsed from an identical payload earlier.
+     *
+     * @param xmlData the xml data
+     * @param jaxbModelClasses the jaxb model classes
+     * @return the shared, read-only object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object parseXML(byte[] xmlData, Class<?>[] jaxbModelClasses) throws JAXBException {
+        ResultKey key = new ResultKey(xmlData, jaxbModelClasses, false);
+        Object cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object result = XMLUtil.parseXMLFromStream(new ByteArrayInputStream(xmlData), jaxbModelClasses);
+        store(key, result);
+        return result;
+    }
+
+
+    /**
+     * Gets the number of cached results, including expired results not yet removed.
+     *
+     * @return the size
+     */
+    public static int size() {
+        return results.size();
+    }
+
+
+    /**
+     * Sets the maximum number of cached results.
+     *
+     * @param size the new maximum size
+     */
+    public static void setMaximumSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + size);
+        }
+        maximumSize = size;
+        evictIfNecessary();
+    }
+
+
+    /**
+     * Sets how long a result stays cached after it was unmarshalled.
+     *
+     * @param duration the duration
+     * @param unit the unit
+     */
+    public static void setTimeToLive(long duration, TimeUnit unit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive: " + duration);
+        }
+        timeToLiveNanos = unit.toNanos(duration);
+    }
+
+
+    /**
+     * Removes every cached result. Statistics are left untouched.
+     */
+    public static void clear() {
+        results.clear();
+    }
+
+
+    /**
+     * Gets a snapshot of the cache statistics.
+     *
+     * @return the statistics
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.get(), evictions.get(), expirations.get(), results.size());
+    }
+
+
+    /**
+     * Resets the cache statistics.
+     */
+    public static void resetStatistics() {
+        hits.reset();
+        misses.set(0);
+        evictions.set(0);
+        expirations.set(0);
+    }
+
+
+    private static Object lookup(ResultKey key) {
+        CachedResult entry = results.get(key);
+        if (entry != null) {
+            long now = AccessTime.now();
+            if (now - entry.created < timeToLiveNanos) {
+                Object value = entry.get();
+                if (value != null) {
+                    if (AccessTime.isStale(entry.lastAccess, now)) {
+                        entry.lastAccess = now;
+                    }
+                    hits.increment();
+                    return value;
+                }
+                results.remove(key, entry);
+            } else if (results.remove(key, entry)) {
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+
+    private static void store(ResultKey key, Object value) {
+        if (value == null) {
+            return;
+        }
+        sweep();
+        CachedResult entry = new CachedResult(value);
+        entry.lastAccess = entry.created;
+        results.put(key, entry);
+        evictIfNecessary();
+    }
+
+
+    private static void sweep() {
+        long now = System.nanoTime();
+        Iterator<Entry<ResultKey, CachedResult>> it = results.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<ResultKey, CachedResult> candidate = it.next();
+            if (now - candidate.getValue().created >= timeToLiveNanos) {
+                if (results.remove(candidate.getKey(), candidate.getValue())) {
+                    expirations.incrementAndGet();
+                }
+            } else if (candidate.getValue().get() == null || candidate.getKey().isCleared()) {
+                results.remove(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+
+    private static void evictIfNecessary() {
+        while (results.size() > maximumSize) {
+            long now = System.nanoTime();
+            ResultKey eldest = null;
+            CachedResult eldestEntry = null;
+            Iterator<Entry<ResultKey, CachedResult>> it = results.entrySet().iterator();
+            while (it.hasNext()) {
+                Entry<ResultKey, CachedResult> candidate = it.next();
+                if (now - candidate.getValue().created >= timeToLiveNanos) {
+                    if (results.remove(candidate.getKey(), candidate.getValue())) {
+                        expirations.incrementAndGet();
+                    }
+                    continue;
+                }
+                if (eldestEntry == null || AccessTime.isOlder(candidate.getValue().lastAccess, eldestEntry.lastAccess)) {
+                    eldest = candidate.getKey();
+                    eldestEntry = candidate.getValue();
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (results.size() > maximumSize && results.remove(eldest, eldestEntry)) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+
+    /**
+     * Identity of a payload: its hash and length, the classes it is bound to and whether it was unmarshalled to a declared type, in which case the result is never a
+     * JAXBElement. Classes are held weakly so that the key never pins a class loader.
+     */
+    private static final class ResultKey {
+        private final long contentHash;
+        private final int length;
+        private final List<WeakReference<Class<?>>> classes;
+        private final boolean declaredType;
+        private final int hash;
+
+
+        ResultKey(byte[] content, Class<?>[] types, boolean declaredType) {
+            this.contentHash = XxHash64.hash(content);
+            this.length = content.length;
+            this.classes = new ArrayList<>(types.length);
+            int h = 1;
+            for (Class<?> type : types) {
+                this.classes.add(new WeakReference<Class<?>>(type));
+                h = 31 * h + System.identityHashCode(type);
+            }
+            this.declaredType = declaredType;
+            this.hash = 31 * (31 * Long.hashCode(contentHash) + length) + h + (declaredType ? 1 : 0);
+        }
+
+
+        boolean isCleared() {
+            for (WeakReference<Class<?>> type : classes) {
+                if (type.get() == null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResultKey)) {
+                return false;
+            }
+            ResultKey other = (ResultKey) obj;
+            if (contentHash != other.contentHash || length != other.length || declaredType != other.declaredType || classes.size() != other.classes.size()) {
+                return false;
+            }
+            for (int i = 0; i < classes.size(); i++) {
+                Class<?> mine = classes.get(i).get();
+                if (mine == null || mine != other.classes.get(i).get()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Softly reachable cached object with its creation time and last access.
+     */
+    private static final class CachedResult extends SoftReference<Object> {
+        private final long created = AccessTime.now();
+        private volatile long lastAccess;
+
+
+        CachedResult(Object value) {
+            super(value);
+        }
+    }
+
+    /**
+     * Snapshot of the cache statistics.
+     */
+    public static final class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long expirationCount;
+        private final int size;
+
+
+        Statistics(long hitCount, long missCount, long evictionCount, long expirationCount, int size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+            this.size = size;
+        }
+
+
+        /**
+         * Gets the number of payloads answered from the cache.
+         *
+         * @return the hit count
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+
+        /**
+         * Gets the number of payloads that had to be unmarshalled.
+         *
+         * @return the miss count
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+
+        /**
+         * Gets the number of results evicted because the cache was full.
+         *
+         * @return the eviction count
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+
+        /**
+         * Gets the number of results dropped because their time to live had passed.
+         *
+         * @return the expiration count
+         */
+        public long getExpirationCount() {
+            return expirationCount;
+        }
+
+
+        /**
+         * Gets the hit rate, between 0 and 1.
+         *
+         * @return the hit rate
+         */
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+
+        /**
+         * Gets the number of cached results at the time of the snapshot.
+         *
+         * @return the size
+         */
+        public int getSize() {
+            return size;
+        }
+
+
+        @Override
+        public String toString() {
+            return "UnmarshalResultCache.Statistics [hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ", expirations=" + expirationCount
+                    + ", size=" + size + "]";
+        }
+    }
+}
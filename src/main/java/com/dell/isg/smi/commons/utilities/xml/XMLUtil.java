@@ -3,29 +3,43 @@
  */
 package com.dell.isg.smi.commons.utilities.xml;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
-import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Source;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
-import javax.xml.validation.Validator;
 
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
@@ -33,6 +47,9 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.XMLFilterImpl;
 
+import com.dell.isg.smi.commons.utilities.stream.ByteBufferInputStream;
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+
 /**
  * The Class XMLUtil.
  */
@@ -42,7 +59,7 @@ public class XMLUtil {
     }
     
     /**
-     * Parses an xml from the filesystem using JAXB.
+     * Parses an xml from the filesystem using JAXB. Files written with a compressed {@link XmlOutputProfile} are inflated transparently.
      *
      * @param xmlPath the xml path
      * @param jaxbModelClasses the jaxb model classes
@@ -50,15 +67,34 @@ public class XMLUtil {
      * @throws JAXBException the JAXB exception
      */
     public static Object parseXML(String xmlPath, Class[] jaxbModelClasses) throws JAXBException {
-        JAXBContext jc = JAXBContext.newInstance(jaxbModelClasses);
-        Unmarshaller u = jc.createUnmarshaller();
-        Object xmlElement = null;
-        try {
-            xmlElement = u.unmarshal(new File(xmlPath));
-        } catch (JAXBException e) {
-            throw e;
+        return parseXML(xmlPath, jaxbModelClasses, null);
+    }
+
+
+    /**
+     * Parses an xml from the filesystem using JAXB, replacing repeated attribute and text values with shared instances from the interner. Intended for large,
+     * repetitive documents that are kept in memory.
+     *
+     * @param xmlPath the xml path
+     * @param jaxbModelClasses the jaxb model classes
+     * @param interner the string interner, or null to keep every string
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object parseXML(String xmlPath, Class[] jaxbModelClasses, StringInterner interner) throws JAXBException {
+        File file = new File(xmlPath);
+        JAXBContext jc = JAXBContextRegistry.getContext(jaxbModelClasses);
+        Unmarshaller u = JAXBMarshallerPool.borrowUnmarshaller(jc);
+        if (interner != null) {
+            u.setListener(new InterningUnmarshallerListener(interner));
+        }
+        try (InputStream in = XmlFileReader.open(file); InputStream decoded = XmlCompression.decode(in)) {
+            return u.unmarshal(new StreamSource(decoded, file.toURI().toString()));
+        } catch (IOException e) {
+            throw new JAXBException("Unable to read " + xmlPath, e);
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(jc, u);
         }
-        return xmlElement;
     }
 
 
@@ -76,7 +112,8 @@ public class XMLUtil {
      * @throws FileNotFoundException the file not found exception
      */
     public static Object parseXMLIgnoreNamespace(String xmlPath, String namespace, Class[] jaxbModelClasses) throws JAXBException, SAXException, ParserConfigurationException, FileNotFoundException {
-        JAXBContext jc = JAXBContext.newInstance(jaxbModelClasses);
+        JAXBContext jc = JAXBContextRegistry.getContext(jaxbModelClasses);
+        // The unmarshaller handler is bound to this reader, so it is not taken from the pool
         Unmarshaller unmarshaller = jc.createUnmarshaller();
         // Create the XMLReader
         SAXParserFactory factory = SAXParserFactory.newInstance();
@@ -93,7 +130,7 @@ public class XMLUtil {
 
 
     /**
-     * Parses the XML from stream.
+     * Parses the XML from stream. Content written with a compressed {@link XmlOutputProfile} is inflated transparently. The stream is not closed.
      *
      * @param xmlData the xml data
      * @param jaxbModelClasses the jaxb model classes
@@ -101,9 +138,139 @@ public class XMLUtil {
      * @throws JAXBException the JAXB exception
      */
     public static Object parseXMLFromStream(InputStream xmlData, Class[] jaxbModelClasses) throws JAXBException {
-        JAXBContext jc = JAXBContext.newInstance(jaxbModelClasses);
-        Unmarshaller u = jc.createUnmarshaller();
-        return u.unmarshal(xmlData);
+        return parseXMLFromStream(xmlData, jaxbModelClasses, null);
+    }
+
+
+    /**
+     * Parses the XML from stream, replacing repeated attribute and text values with shared instances from the interner. The stream is not closed.
+     *
+     * @param xmlData the xml data
+     * @param jaxbModelClasses the jaxb model classes
+     * @param interner the string interner, or null to keep every string
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object parseXMLFromStream(InputStream xmlData, Class[] jaxbModelClasses, StringInterner interner) throws JAXBException {
+        JAXBContext jc = JAXBContextRegistry.getContext(jaxbModelClasses);
+        Unmarshaller u = JAXBMarshallerPool.borrowUnmarshaller(jc);
+        if (interner != null) {
+            u.setListener(new InterningUnmarshallerListener(interner));
+        }
+        try (InputStream decoded = XmlCompression.decode(xmlData)) {
+            return u.unmarshal(decoded);
+        } catch (IOException e) {
+            throw new JAXBException("Unable to read xml stream", e);
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(jc, u);
+        }
+    }
+
+
+    /**
+     * Parses the XML from bytes, decoded with the encoding declared by the document.
+     *
+     * @param xmlData the xml data
+     * @param jaxbModelClasses the jaxb model classes
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object parseXMLFromBytes(byte[] xmlData, Class[] jaxbModelClasses) throws JAXBException {
+        return parseXMLFromStream(new ByteArrayInputStream(xmlData), jaxbModelClasses);
+    }
+
+
+    /**
+     * Parses the XML from a stream through the {@link UnmarshalResultCache}, so a payload identical to an earlier one is not parsed again. The stream is read fully but
+     * not closed, and the returned object is shared and must not be modified.
+     *
+     * @param xmlData the xml data
+     * @param jaxbModelClasses the jaxb model classes
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static Object parseCachedXMLFromStream(InputStream xmlData, Class[] jaxbModelClasses) throws JAXBException, IOException {
+        return UnmarshalResultCache.parseXML(StreamUtils.readFully(xmlData), jaxbModelClasses);
+    }
+
+
+    /**
+     * Parses the XML from the remaining bytes of a buffer, decoded with the encoding declared by the document. The buffer position is not changed.
+     *
+     * @param xmlData the xml data
+     * @param jaxbModelClasses the jaxb model classes
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object parseXMLFromBuffer(ByteBuffer xmlData, Class[] jaxbModelClasses) throws JAXBException {
+        return parseXMLFromStream(new ByteBufferInputStream(xmlData), jaxbModelClasses);
+    }
+
+
+    /**
+     * Iterates over the elements with the given name in an xml stream, unmarshalling them one at a time. The stream is closed when the iterator is exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param xmlData the xml data
+     * @param elementName the element name
+     * @param elementClass the element class
+     * @return the element iterator
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static <T> XmlElementIterator<T> iterateXMLFromStream(InputStream xmlData, QName elementName, Class<T> elementClass) throws JAXBException, XMLStreamException {
+        return new XmlElementIterator<T>(xmlData, elementName, elementClass);
+    }
+
+
+    /**
+     * Iterates over the elements selected by a simple element path, such as Envelope/Body/Item, in an xml stream, unmarshalling only those subtrees one at a time. The
+     * stream is closed when the iterator is exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param xmlData the xml data
+     * @param elementPath the element path
+     * @param elementClass the element class
+     * @return the element iterator
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static <T> XmlElementIterator<T> iterateXMLFromStream(InputStream xmlData, String elementPath, Class<T> elementClass) throws JAXBException, XMLStreamException {
+        return new XmlElementIterator<T>(xmlData, elementPath, elementClass);
+    }
+
+
+    /**
+     * Iterates over the elements named by the class's XmlRootElement annotation in an xml stream, unmarshalling them one at a time. The stream is closed when the
+     * iterator is exhausted or closed.
+     *
+     * @param <T> the generic type
+     * @param xmlData the xml data
+     * @param elementClass the element class
+     * @return the element iterator
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static <T> XmlElementIterator<T> iterateXMLFromStream(InputStream xmlData, Class<T> elementClass) throws JAXBException, XMLStreamException {
+        return new XmlElementIterator<T>(xmlData, elementClass);
+    }
+
+
+    /**
+     * Streams the elements with the given name in an xml stream, unmarshalling them one at a time with the {@link XmlBindingProvider} selected for the element class.
+     * Closing the returned stream closes the xml stream.
+     *
+     * @param <T> the generic type
+     * @param xmlData the xml data
+     * @param elementName the element name
+     * @param elementClass the element class
+     * @return the element stream
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static <T> Stream<T> streamXMLFromStream(InputStream xmlData, QName elementName, Class<T> elementClass) throws JAXBException, XMLStreamException {
+        return XmlBindings.getProvider(elementClass).stream(xmlData, elementName, elementClass);
     }
 
 
@@ -116,10 +283,79 @@ public class XMLUtil {
      * @throws JAXBException the JAXB exception
      */
     public static void saveXML(String xmlPath, Class[] jaxbModelClasses, Object element) throws JAXBException {
-        JAXBContext jc = JAXBContext.newInstance(jaxbModelClasses);
-        Marshaller m = jc.createMarshaller();
-        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        m.marshal(element, new File(xmlPath));
+        saveXML(xmlPath, jaxbModelClasses, element, XmlOutputProfile.PRETTY);
+    }
+
+
+    /**
+     * Saves the xml using the given output profile. The xml is written to a temporary file in the same directory and forced to disk, and the file then atomically
+     * replaces the target, so readers never see a partially written file. A new file gets the default permissions; a replaced file keeps its permissions and, where
+     * allowed, its owner and group.
+     *
+     * @param xmlPath the xml path
+     * @param jaxbModelClasses the jaxb model classes
+     * @param element the element
+     * @param profile the output profile
+     * @throws JAXBException the JAXB exception
+     */
+    public static void saveXML(String xmlPath, Class[] jaxbModelClasses, Object element, XmlOutputProfile profile) throws JAXBException {
+        Path target = Paths.get(xmlPath).toAbsolutePath();
+        Path temp = null;
+        try {
+            // created directly rather than with Files.createTempFile, which would restrict the file to its owner
+            temp = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                saveXML(out, jaxbModelClasses, element, profile);
+                out.flush();
+                channel.force(true);
+            }
+            copyAttributes(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            forceDirectory(target.getParent());
+        } catch (IOException e) {
+            throw new JAXBException("Unable to write " + xmlPath, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // the original failure is more relevant
+                }
+            }
+        }
+    }
+
+
+    private static void copyAttributes(Path from, Path to) throws IOException {
+        PosixFileAttributeView source = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (source == null || !Files.exists(from)) {
+            return;
+        }
+        PosixFileAttributes attributes = source.readAttributes();
+        PosixFileAttributeView destination = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        destination.setPermissions(attributes.permissions());
+        try {
+            destination.setGroup(attributes.group());
+            destination.setOwner(attributes.owner());
+        } catch (IOException e) {
+            // changing the owner needs privileges the process may not have; the permissions are kept regardless
+        }
+    }
+
+
+    private static void forceDirectory(Path directory) {
+        // makes the rename itself durable; directories cannot be opened for this on every platform
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // the file contents are already on disk
+        }
     }
 
 
@@ -133,10 +369,44 @@ public class XMLUtil {
      */
     public static void validate(InputStream schemaFile, byte[] buf) throws SAXException, IOException {
         Source xmlFile = new StreamSource(new ByteArrayInputStream(buf));
-        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        Schema schema = schemaFactory.newSchema(new StreamSource(schemaFile));
-        Validator validator = schema.newValidator();
-        validator.validate(xmlFile);
+        SchemaCache.validate(SchemaCache.getSchema(schemaFile), xmlFile);
+    }
+
+
+    /**
+     * Parses the XML from stream, validating it against a schema in the same pass.
+     *
+     * @param xmlData the xml data
+     * @param schema the schema
+     * @param jaxbModelClasses the jaxb model classes
+     * @return the object
+     * @throws JAXBException the JAXB exception, including validation failures
+     */
+    public static Object parseValidatedXMLFromStream(InputStream xmlData, Schema schema, Class[] jaxbModelClasses) throws JAXBException {
+        JAXBContext jc = JAXBContextRegistry.getContext(jaxbModelClasses);
+        Unmarshaller u = JAXBMarshallerPool.borrowUnmarshaller(jc);
+        try {
+            u.setSchema(schema);
+            return u.unmarshal(xmlData);
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(jc, u);
+        }
+    }
+
+
+    /**
+     * Validates and parses the xml in a single pass, replacing a call to {@link #validate(InputStream, byte[])} followed by a parse of the same buffer.
+     *
+     * @param schemaFile the schema file
+     * @param buf the buf
+     * @param jaxbModelClasses the jaxb model classes
+     * @return the object
+     * @throws JAXBException the JAXB exception, including validation failures
+     * @throws SAXException the SAX exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static Object parseValidatedXML(InputStream schemaFile, byte[] buf, Class[] jaxbModelClasses) throws JAXBException, SAXException, IOException {
+        return parseValidatedXMLFromStream(new ByteArrayInputStream(buf), SchemaCache.getSchema(schemaFile), jaxbModelClasses);
     }
 
 
@@ -149,14 +419,126 @@ public class XMLUtil {
      * @throws JAXBException the JAXB exception
      */
     public static byte[] getXML(Object object, Class[] jaxbClasses) throws JAXBException {
-        JAXBContext jc = JAXBContext.newInstance(jaxbClasses);
-        Marshaller m = jc.createMarshaller();
-        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+        return getXML(object, jaxbClasses, XmlOutputProfile.PRETTY);
+    }
+
+
+    /**
+     * Gets the xml using the given output profile.
+     *
+     * @param object the object
+     * @param jaxbClasses the jaxb classes
+     * @param profile the output profile
+     * @return the xml
+     * @throws JAXBException the JAXB exception
+     */
+    public static byte[] getXML(Object object, Class[] jaxbClasses, XmlOutputProfile profile) throws JAXBException {
         ByteArrayOutputStream sbos = new ByteArrayOutputStream();
-        m.marshal(object, sbos);
+        saveXML(sbos, jaxbClasses, object, profile);
         return sbos.toByteArray();
     }
 
+
+    /**
+     * Saves the xml as UTF-8 to an output stream, which is left open.
+     *
+     * @param outputStream the output stream
+     * @param jaxbModelClasses the jaxb model classes
+     * @param element the element
+     * @throws JAXBException the JAXB exception
+     */
+    public static void saveXML(OutputStream outputStream, Class[] jaxbModelClasses, Object element) throws JAXBException {
+        saveXML(outputStream, jaxbModelClasses, element, XmlOutputProfile.PRETTY);
+    }
+
+
+    /**
+     * Saves the xml to an output stream using the given output profile. Compression is finished but the output stream is left open.
+     *
+     * @param outputStream the output stream
+     * @param jaxbModelClasses the jaxb model classes
+     * @param element the element
+     * @param profile the output profile
+     * @throws JAXBException the JAXB exception
+     */
+    public static void saveXML(OutputStream outputStream, Class[] jaxbModelClasses, Object element, XmlOutputProfile profile) throws JAXBException {
+        JAXBContext jc = JAXBContextRegistry.getContext(jaxbModelClasses);
+        Marshaller m = JAXBMarshallerPool.borrowMarshaller(jc, profile.getMarshallerProperties());
+        OutputStream out = null;
+        try {
+            out = profile.wrap(outputStream);
+            m.marshal(element, out);
+            profile.finish(out);
+        } catch (IOException e) {
+            throw new JAXBException("Unable to write xml stream", e);
+        } finally {
+            profile.release(out);
+            JAXBMarshallerPool.returnMarshaller(jc, profile.getMarshallerProperties(), m);
+        }
+    }
+
+
+    /**
+     * Writes a root element wrapping the given elements to an output stream, marshalling one element at a time. The output stream is flushed but left open. If an
+     * element or the iterator fails, the document is left unterminated.
+     *
+     * @param outputStream the output stream
+     * @param rootElement the root element name
+     * @param elements the elements
+     * @param jaxbClasses the jaxb classes
+     * @return the number of elements written
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static long writeXML(OutputStream outputStream, QName rootElement, Iterator<?> elements, Class[] jaxbClasses) throws JAXBException, XMLStreamException, IOException {
+        XmlCollectionWriter writer = new XmlCollectionWriter(outputStream, rootElement, jaxbClasses);
+        long count;
+        try {
+            count = writer.writeAll(elements);
+        } catch (JAXBException | RuntimeException e) {
+            // the closing tags are not written, so a failed export is never well-formed
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+        return count;
+    }
+
+
+    /**
+     * Writes a root element wrapping the elements of a stream to an output stream, marshalling one element at a time. The output stream is flushed but left open.
+     *
+     * @param outputStream the output stream
+     * @param rootElement the root element name
+     * @param elements the elements
+     * @param jaxbClasses the jaxb classes
+     * @return the number of elements written
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static long writeXML(OutputStream outputStream, QName rootElement, Stream<?> elements, Class[] jaxbClasses) throws JAXBException, XMLStreamException, IOException {
+        return writeXML(outputStream, rootElement, elements.iterator(), jaxbClasses);
+    }
+
+
+    /**
+     * Writes a root element wrapping the given elements to a channel, marshalling one element at a time. The channel is left open.
+     *
+     * @param channel the channel
+     * @param rootElement the root element name
+     * @param elements the elements
+     * @param jaxbClasses the jaxb classes
+     * @return the number of elements written
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static long writeXML(WritableByteChannel channel, QName rootElement, Iterator<?> elements, Class[] jaxbClasses) throws JAXBException, XMLStreamException, IOException {
+        return writeXML(Channels.newOutputStream(channel), rootElement, elements, jaxbClasses);
+    }
+
     /**
      * XMLNamespaceFilter.
      */
@@ -187,33 +569,13 @@ public class XMLUtil {
 
 
     /**
-     * Convert file to XML string.
+     * Convert file to XML string. The file is decoded with the encoding named by its byte order mark or XML declaration, UTF-8 otherwise, and line breaks are kept.
      *
      * @param xmlSource the xml source
      * @return the string
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public static String convertFileToXMLString(String xmlSource) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-        FileReader fileReader = null;
-        BufferedReader br = null;
-        try {
-            fileReader = new FileReader(xmlSource);
-            br = new BufferedReader(fileReader);
-            String strLine = null;
-            // Read File Line By Line
-            while ((strLine = br.readLine()) != null) {
-                stringBuilder.append(strLine);
-            }
-            return stringBuilder.toString();
-        } finally {
-            if (fileReader != null) {
-                fileReader.close();
-            }
-            
-            if (br != null) {
-                br.close();
-            }
-        }
+        return XmlFileReader.readString(new File(xmlSource));
     }
 }
@@ -0,0 +1,338 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.w3c.dom.Node;
+
+/**
+ * The Class XPathExpressionCache.
+ *
+ * Cache of compiled XPath expressions keyed by expression text and the namespace bindings of the prefixes it uses. A compiled {@link XPathExpression} is not
+ * thread-safe, so each key holds a small pool of compiled copies: a thread borrows one for the duration of an evaluation and hands it back, compiling a new copy only
+ * when every pooled copy is busy. Prefixes are resolved through the caller's namespace context on every call and the expression is compiled against a snapshot of
+ * those bindings, so callers that build a new context per call still share the cached copies. The number of cached expressions is bounded; the least recently used
+ * expression is evicted when full, and expressions that fail to compile are not cached.
+ */
+public final class XPathExpressionCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    private static final int COPIES_PER_EXPRESSION = 8;
+
+    private static final ThreadLocal<XPathFactory> factories = new ThreadLocal<XPathFactory>() {
+        @Override
+        protected XPathFactory initialValue() {
+            return XPathFactory.newInstance();
+        }
+    };
+
+    private static final ConcurrentMap<ExpressionKey, CachedExpression> expressions = new ConcurrentHashMap<>();
+
+    private static volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+
+    private XPathExpressionCache() {
+    }
+
+
+    /**
+     * Evaluates a cached expression.
+     *
+     * @param node the context node
+     * @param expression the expression
+     * @param returnType the return type, one of the {@link javax.xml.xpath.XPathConstants}
+     * @return the result
+     * @throws XPathExpressionException the x path expression exception
+     */
+    public static Object evaluate(Node node, String expression, QName returnType) throws XPathExpressionException {
+        return evaluate(node, expression, null, returnType);
+    }
+
+
+    /**
+     * Evaluates a cached expression using the given namespace context.
+     *
+     * @param node the context node
+     * @param expression the expression
+     * @param namespaceContext the namespace context, may be null
+     * @param returnType the return type, one of the {@link javax.xml.xpath.XPathConstants}
+     * @return the result
+     * @throws XPathExpressionException the x path expression exception
+     */
+    public static Object evaluate(Node node, String expression, NamespaceContext namespaceContext, QName returnType) throws XPathExpressionException {
+        ExpressionKey key = new ExpressionKey(expression, resolveBindings(expression, namespaceContext));
+        CachedExpression cached = expressions.get(key);
+        XPathExpression compiled = null;
+        if (cached != null) {
+            long now = AccessTime.now();
+            if (AccessTime.isStale(cached.lastAccess, now)) {
+                cached.lastAccess = now;
+            }
+            compiled = cached.pool.poll();
+        }
+        if (compiled == null) {
+            compiled = compile(key);
+        }
+        try {
+            return compiled.evaluate(node, returnType);
+        } finally {
+            if (cached == null) {
+                cached = register(key);
+            }
+            cached.pool.offer(compiled);
+        }
+    }
+
+
+    /**
+     * Evaluates many cached expressions against the same node.
+     *
+     * @param node the context node
+     * @param expressionTypes the return type of each expression
+     * @return the result of each expression, in the iteration order of the given map
+     * @throws XPathExpressionException the x path expression exception
+     */
+    public static Map<String, Object> evaluateAll(Node node, Map<String, QName> expressionTypes) throws XPathExpressionException {
+        return evaluateAll(node, expressionTypes, null);
+    }
+
+
+    /**
+     * Evaluates many cached expressions against the same node using the given namespace context.
+     *
+     * @param node the context node
+     * @param expressionTypes the return type of each expression
+     * @param namespaceContext the namespace context, may be null
+     * @return the result of each expression, in the iteration order of the given map
+     * @throws XPathExpressionException the x path expression exception
+     */
+    public static Map<String, Object> evaluateAll(Node node, Map<String, QName> expressionTypes, NamespaceContext namespaceContext) throws XPathExpressionException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Entry<String, QName> entry : expressionTypes.entrySet()) {
+            results.put(entry.getKey(), evaluate(node, entry.getKey(), namespaceContext, entry.getValue()));
+        }
+        return results;
+    }
+
+
+    /**
+     * Gets the number of cached expressions.
+     *
+     * @return the size
+     */
+    public static int size() {
+        return expressions.size();
+    }
+
+
+    /**
+     * Sets the maximum number of cached expressions.
+     *
+     * @param size the new maximum size
+     */
+    public static void setMaximumSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + size);
+        }
+        maximumSize = size;
+        evictIfNecessary();
+    }
+
+
+    /**
+     * Removes every cached expression.
+     */
+    public static void clear() {
+        expressions.clear();
+    }
+
+
+    private static CachedExpression register(ExpressionKey key) {
+        CachedExpression created = new CachedExpression();
+        created.lastAccess = AccessTime.now();
+        CachedExpression existing = expressions.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        evictIfNecessary();
+        return created;
+    }
+
+
+    private static void evictIfNecessary() {
+        while (expressions.size() > maximumSize) {
+            ExpressionKey eldest = null;
+            CachedExpression eldestEntry = null;
+            for (Entry<ExpressionKey, CachedExpression> candidate : expressions.entrySet()) {
+                if (eldestEntry == null || AccessTime.isOlder(candidate.getValue().lastAccess, eldestEntry.lastAccess)) {
+                    eldest = candidate.getKey();
+                    eldestEntry = candidate.getValue();
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            expressions.remove(eldest, eldestEntry);
+        }
+    }
+
+
+    private static XPathExpression compile(ExpressionKey key) throws XPathExpressionException {
+        XPath xpath = factories.get().newXPath();
+        if (!key.bindings.isEmpty()) {
+            xpath.setNamespaceContext(new BindingsContext(key.bindings));
+        }
+        return xpath.compile(key.expression);
+    }
+
+
+    /**
+     * Resolves the namespace of every prefix the expression uses, ignoring string literals. Unbound prefixes are left out.
+     */
+    private static Map<String, String> resolveBindings(String expression, NamespaceContext namespaceContext) {
+        if (namespaceContext == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> bindings = null;
+        int length = expression.length();
+        int i = 0;
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (c == '\'' || c == '"') {
+                int end = expression.indexOf(c, i + 1);
+                i = end < 0 ? length : end + 1;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && isNameChar(expression.charAt(i))) {
+                    i++;
+                }
+                // a prefix is followed by a single colon; two colons end an axis name
+                if (i + 1 < length && expression.charAt(i) == ':' && expression.charAt(i + 1) != ':') {
+                    String prefix = expression.substring(start, i);
+                    String namespace = namespaceContext.getNamespaceURI(prefix);
+                    if (namespace != null && !namespace.isEmpty()) {
+                        if (bindings == null) {
+                            bindings = new TreeMap<>();
+                        }
+                        bindings.put(prefix, namespace);
+                    }
+                }
+            } else {
+                i++;
+            }
+        }
+        return bindings != null ? bindings : Collections.<String, String> emptyMap();
+    }
+
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+
+    /**
+     * Expression text plus the namespace bindings of its prefixes.
+     */
+    private static final class ExpressionKey {
+        private final String expression;
+        private final Map<String, String> bindings;
+        private final int hash;
+
+
+        ExpressionKey(String expression, Map<String, String> bindings) {
+            this.expression = expression;
+            this.bindings = bindings;
+            this.hash = 31 * expression.hashCode() + bindings.hashCode();
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ExpressionKey)) {
+                return false;
+            }
+            ExpressionKey other = (ExpressionKey) obj;
+            return expression.equals(other.expression) && bindings.equals(other.bindings);
+        }
+    }
+
+    /**
+     * Pooled compiled copies of an expression with their last access.
+     */
+    private static final class CachedExpression {
+        private final BlockingQueue<XPathExpression> pool = new ArrayBlockingQueue<>(COPIES_PER_EXPRESSION);
+        private volatile long lastAccess;
+    }
+
+    /**
+     * Immutable namespace context over a snapshot of bindings, so compiled copies never hold on to a caller's context.
+     */
+    private static final class BindingsContext implements NamespaceContext {
+        private final Map<String, String> bindings;
+
+
+        BindingsContext(Map<String, String> bindings) {
+            this.bindings = bindings;
+        }
+
+
+        @Override
+        public String getNamespaceURI(String prefix) {
+            if (prefix == null) {
+                throw new IllegalArgumentException("prefix");
+            }
+            if (XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                return XMLConstants.XML_NS_URI;
+            }
+            if (XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+                return XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+            }
+            String namespace = bindings.get(prefix);
+            return namespace != null ? namespace : XMLConstants.NULL_NS_URI;
+        }
+
+
+        @Override
+        public String getPrefix(String namespaceURI) {
+            Iterator<String> prefixes = getPrefixes(namespaceURI);
+            return prefixes.hasNext() ? prefixes.next() : null;
+        }
+
+
+        @Override
+        public Iterator<String> getPrefixes(String namespaceURI) {
+            List<String> prefixes = new ArrayList<>();
+            for (Entry<String, String> binding : bindings.entrySet()) {
+                if (binding.getValue().equals(namespaceURI)) {
+                    prefixes.add(binding.getKey());
+                }
+            }
+            return prefixes.iterator();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * The Class XmlBatchUnmarshaller.
+ *
+ * Unmarshals a batch of XML payloads of the same type in parallel. The calling thread works on the batch itself and at most {@code maxParallelism - 1} helper tasks
+ * are submitted to the executor, each holding one pooled unmarshaller while it claims payloads from a shared counter, so a large batch cannot flood a shared pool and a
+ * busy, full or shut down executor only slows the batch down instead of stalling or failing it. Results keep the order of the payloads and a failing payload is
+ * reported in its own {@link Result} without affecting the rest of the batch.
+ */
+public final class XmlBatchUnmarshaller {
+
+    private XmlBatchUnmarshaller() {
+    }
+
+
+    /**
+     * Unmarshals xml payloads on the calling thread helped by the common fork join pool, using at most as many threads as there are processors.
+     *
+     * @param <T> the generic type
+     * @param payloads the payloads
+     * @param type the type
+     * @return the results, in payload order
+     * @throws JAXBException if the JAXB context cannot be created
+     * @throws InterruptedException if interrupted while waiting for the batch
+     */
+    public static <T> List<Result<T>> unmarshalAll(List<byte[]> payloads, Class<T> type) throws JAXBException, InterruptedException {
+        return unmarshalAll(payloads, type, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Unmarshals xml payloads on the calling thread helped by the given executor.
+     *
+     * @param <T> the generic type
+     * @param payloads the payloads
+     * @param type the type
+     * @param executor the executor
+     * @param maxParallelism the maximum number of payloads unmarshalled at the same time
+     * @return the results, in payload order
+     * @throws JAXBException if the JAXB context cannot be created
+     * @throws InterruptedException if interrupted while waiting for the batch
+     */
+    public static <T> List<Result<T>> unmarshalAll(final List<byte[]> payloads, Class<T> type, ExecutorService executor, int maxParallelism) throws JAXBException,
+            InterruptedException {
+        return unmarshalAll(payloads.size(), index -> new StreamSource(new ByteArrayInputStream(payloads.get(index))), type, executor, maxParallelism);
+    }
+
+
+    /**
+     * Unmarshals xml strings on the calling thread helped by the given executor.
+     *
+     * @param <T> the generic type
+     * @param payloads the payloads
+     * @param type the type
+     * @param executor the executor
+     * @param maxParallelism the maximum number of payloads unmarshalled at the same time
+     * @return the results, in payload order
+     * @throws JAXBException if the JAXB context cannot be created
+     * @throws InterruptedException if interrupted while waiting for the batch
+     */
+    public static <T> List<Result<T>> unmarshalAllStrings(final List<String> payloads, Class<T> type, ExecutorService executor, int maxParallelism) throws JAXBException,
+            InterruptedException {
+        return unmarshalAll(payloads.size(), index -> new StreamSource(new StringReader(payloads.get(index))), type, executor, maxParallelism);
+    }
+
+
+    private static <T> List<Result<T>> unmarshalAll(final int size, final IntFunction<Source> sources, final Class<T> type, ExecutorService executor, int maxParallelism)
+            throws JAXBException, InterruptedException {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + maxParallelism);
+        }
+        final JAXBContext context = JAXBContextRegistry.getContext(type);
+        final Batch<T> batch = new Batch<T>(context, sources, type, size);
+
+        int helpers = Math.min(maxParallelism, size) - 1;
+        List<Future<?>> futures = new ArrayList<>(Math.max(helpers, 0));
+        try {
+            for (int i = 0; i < helpers; i++) {
+                try {
+                    futures.add(executor.submit(batch::unmarshalClaimed));
+                } catch (RejectedExecutionException e) {
+                    // a full or shut down executor only means fewer helpers; the calling thread claims whatever is left
+                    break;
+                }
+            }
+            batch.unmarshalClaimed();
+            // helpers may still be finishing payloads they claimed before the caller ran out of work
+            batch.remaining.await();
+        } finally {
+            // helpers that have not started yet would find nothing left to claim
+            for (Future<?> future : futures) {
+                future.cancel(batch.remaining.getCount() > 0);
+            }
+        }
+        Throwable failure = batch.failure.get();
+        if (failure != null) {
+            // items are unmarshalled inside their own try blocks, so only an Error can get here
+            throw new IllegalStateException("Batch unmarshal task failed", failure);
+        }
+        List<Result<T>> results = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            results.add(batch.results.get(index));
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * The shared state of one batch: payloads are claimed from a counter and counted down once their result is stored.
+     */
+    private static final class Batch<T> {
+        private final JAXBContext context;
+        private final IntFunction<Source> sources;
+        private final Class<T> type;
+        private final int size;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicReferenceArray<Result<T>> results;
+        private final CountDownLatch remaining;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+
+        Batch(JAXBContext context, IntFunction<Source> sources, Class<T> type, int size) {
+            this.context = context;
+            this.sources = sources;
+            this.type = type;
+            this.size = size;
+            this.results = new AtomicReferenceArray<>(size);
+            this.remaining = new CountDownLatch(size);
+        }
+
+
+        void unmarshalClaimed() {
+            if (next.get() >= size) {
+                return;
+            }
+            Unmarshaller unmarshaller = null;
+            try {
+                unmarshaller = JAXBMarshallerPool.borrowUnmarshaller(context);
+            } catch (JAXBException e) {
+                for (int index = next.getAndIncrement(); index < size; index = next.getAndIncrement()) {
+                    results.set(index, new Result<T>(index, null, e));
+                    remaining.countDown();
+                }
+                return;
+            }
+            try {
+                for (int index = next.getAndIncrement(); index < size; index = next.getAndIncrement()) {
+                    try {
+                        results.set(index, new Result<T>(index, unmarshaller.unmarshal(sources.apply(index), type).getValue(), null));
+                    } catch (JAXBException | RuntimeException e) {
+                        results.set(index, new Result<T>(index, null, e));
+                    } finally {
+                        remaining.countDown();
+                    }
+                }
+            } catch (Error e) {
+                failure.compareAndSet(null, e);
+                throw e;
+            } finally {
+                JAXBMarshallerPool.returnUnmarshaller(context, unmarshaller);
+            }
+        }
+    }
+
+    /**
+     * The outcome of unmarshalling one payload of a batch.
+     *
+     * @param <T> the generic type
+     */
+    public static final class Result<T> {
+        private final int index;
+        private final T value;
+        private final Exception error;
+
+
+        Result(int index, T value, Exception error) {
+            this.index = index;
+            this.value = value;
+            this.error = error;
+        }
+
+
+        /**
+         * Gets the position of the payload in the batch.
+         *
+         * @return the index
+         */
+        public int getIndex() {
+            return index;
+        }
+
+
+        /**
+         * Gets the unmarshalled value.
+         *
+         * @return the value, or null if the payload failed
+         */
+        public T getValue() {
+            return value;
+        }
+
+
+        /**
+         * Gets the error that prevented the payload from being unmarshalled.
+         *
+         * @return the error, or null if the payload succeeded
+         */
+        public Exception getError() {
+            return error;
+        }
+
+
+        /**
+         * Checks if the payload was unmarshalled.
+         *
+         * @return true, if successful
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.stream.Stream;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The Interface XmlBindingProvider.
+ *
+ * A backend that binds objects to XML for {@link JAXBHelper} and {@link XMLUtil#streamXMLFromStream(InputStream, QName, Class)}. Model classes are described with JAXB
+ * annotations whichever backend is used. Providers are shared and must be thread-safe. Failures are reported as {@link JAXBException} so the helpers keep their
+ * signatures; see {@link XmlBindings} for choosing a provider.
+ */
+public interface XmlBindingProvider {
+
+    /**
+     * Gets the provider name, used in logs and benchmark results.
+     *
+     * @return the name
+     */
+    String getName();
+
+
+    /**
+     * Marshals an object as UTF-8 to an output stream, which is left open.
+     *
+     * @param <T> the generic type
+     * @param instance the instance
+     * @param type the type
+     * @param outputStream the output stream
+     * @throws JAXBException the JAXB exception
+     */
+    <T> void marshal(T instance, Class<T> type, OutputStream outputStream) throws JAXBException;
+
+
+    /**
+     * Marshals an object to a writer, which is left open.
+     *
+     * @param <T> the generic type
+     * @param instance the instance
+     * @param type the type
+     * @param writer the writer
+     * @throws JAXBException the JAXB exception
+     */
+    <T> void marshal(T instance, Class<T> type, Writer writer) throws JAXBException;
+
+
+    /**
+     * Unmarshals an object from an input stream, decoded with the encoding declared by the document. The stream is not closed.
+     *
+     * @param <T> the generic type
+     * @param inputStream the input stream
+     * @param type the type
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    <T> T unmarshal(InputStream inputStream, Class<T> type) throws JAXBException;
+
+
+    /**
+     * Unmarshals an object from a reader, which is not closed.
+     *
+     * @param <T> the generic type
+     * @param reader the reader
+     * @param type the type
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    <T> T unmarshal(Reader reader, Class<T> type) throws JAXBException;
+
+
+    /**
+     * Streams the elements with the given name in an xml stream, unmarshalling them one at a time. An element name without a namespace URI matches on the local name
+     * alone. Closing the returned stream closes the input stream.
+     *
+     * @param <T> the generic type
+     * @param inputStream the input stream
+     * @param elementName the element name
+     * @param type the element type
+     * @return the element stream
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    <T> Stream<T> stream(InputStream inputStream, QName elementName, Class<T> type) throws JAXBException, XMLStreamException;
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.bind.JAXBException;
+
+/**
+ * The Class XmlBindings.
+ *
+ * Chooses the {@link XmlBindingProvider} used by {@link JAXBHelper} and {@link XMLUtil#streamXMLFromStream(java.io.InputStream, javax.xml.namespace.QName, Class)}.
+ * {@link JaxbXmlBindingProvider} is the default; another provider can be made the default, or be selected for individual classes, for example
+ * {@link JacksonXmlBindingProvider} on a hot path once {@link #benchmark(Object, Class, int, XmlBindingProvider...)} has shown it to be faster for that class. The
+ * per-class choice is kept in a {@link ClassValue}, so looking it up takes no lock and does not keep the class loaded.
+ */
+public final class XmlBindings {
+    private static final ClassValue<AtomicReference<XmlBindingProvider>> providers = new ClassValue<AtomicReference<XmlBindingProvider>>() {
+        @Override
+        protected AtomicReference<XmlBindingProvider> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private static volatile XmlBindingProvider defaultProvider = JaxbXmlBindingProvider.INSTANCE;
+
+
+    private XmlBindings() {
+    }
+
+
+    /**
+     * Gets the provider for a class: the provider set for it, otherwise the default provider.
+     *
+     * @param type the type
+     * @return the provider
+     */
+    public static XmlBindingProvider getProvider(Class<?> type) {
+        XmlBindingProvider provider = providers.get(type).get();
+        return provider != null ? provider : defaultProvider;
+    }
+
+
+    /**
+     * Gets the default provider.
+     *
+     * @return the default provider
+     */
+    public static XmlBindingProvider getDefaultProvider() {
+        return defaultProvider;
+    }
+
+
+    /**
+     * Sets the provider used for classes without a provider of their own.
+     *
+     * @param provider the provider
+     */
+    public static void setDefaultProvider(XmlBindingProvider provider) {
+        if (provider == null) {
+            throw new IllegalArgumentException("provider");
+        }
+        defaultProvider = provider;
+    }
+
+
+    /**
+     * Sets the provider used for a class.
+     *
+     * @param type the type
+     * @param provider the provider
+     */
+    public static void setProvider(Class<?> type, XmlBindingProvider provider) {
+        if (provider == null) {
+            throw new IllegalArgumentException("provider");
+        }
+        providers.get(type).set(provider);
+    }
+
+
+    /**
+     * Removes the provider set for a class, which then uses the default provider again.
+     *
+     * @param type the type
+     */
+    public static void removeProvider(Class<?> type) {
+        providers.get(type).set(null);
+    }
+
+
+    /**
+     * Measures marshalling and unmarshalling of a sample with each provider. Each provider round-trips the sample the given number of times to warm up and then again
+     * while timed, unmarshalling the xml it produced itself. A provider that fails is reported with its error instead of timings.
+     *
+     * @param <T> the generic type
+     * @param sample the sample
+     * @param type the type
+     * @param iterations the number of timed round trips
+     * @param candidates the providers to compare, by default the JAXB and Jackson providers
+     * @return the results, in the order of the providers
+     */
+    public static <T> List<BenchmarkResult> benchmark(T sample, Class<T> type, int iterations, XmlBindingProvider... candidates) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        if (candidates.length == 0) {
+            candidates = new XmlBindingProvider[] { JaxbXmlBindingProvider.INSTANCE, JacksonXmlBindingProvider.INSTANCE };
+        }
+        List<BenchmarkResult> results = new ArrayList<>(candidates.length);
+        for (XmlBindingProvider provider : candidates) {
+            try {
+                byte[] xml = null;
+                for (int i = 0; i < iterations; i++) {
+                    xml = marshal(provider, sample, type);
+                    provider.unmarshal(new ByteArrayInputStream(xml), type);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    xml = marshal(provider, sample, type);
+                }
+                long marshalNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    provider.unmarshal(new ByteArrayInputStream(xml), type);
+                }
+                long unmarshalNanos = System.nanoTime() - start;
+                results.add(new BenchmarkResult(provider.getName(), marshalNanos / iterations, unmarshalNanos / iterations, xml.length, null));
+            } catch (JAXBException | RuntimeException e) {
+                results.add(new BenchmarkResult(provider.getName(), -1, -1, -1, e));
+            }
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+
+    private static <T> byte[] marshal(XmlBindingProvider provider, T sample, Class<T> type) throws JAXBException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.marshal(sample, type, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Timings of one provider.
+     */
+    public static final class BenchmarkResult {
+        private final String providerName;
+        private final long marshalNanos;
+        private final long unmarshalNanos;
+        private final int xmlLength;
+        private final Exception error;
+
+
+        BenchmarkResult(String providerName, long marshalNanos, long unmarshalNanos, int xmlLength, Exception error) {
+            this.providerName = providerName;
+            this.marshalNanos = marshalNanos;
+            this.unmarshalNanos = unmarshalNanos;
+            this.xmlLength = xmlLength;
+            this.error = error;
+        }
+
+
+        /**
+         * Gets the provider name.
+         *
+         * @return the provider name
+         */
+        public String getProviderName() {
+            return providerName;
+        }
+
+
+        /**
+         * Gets the average time to marshal the sample, in nanoseconds.
+         *
+         * @return the marshal time, or -1 if the provider failed
+         */
+        public long getMarshalNanos() {
+            return marshalNanos;
+        }
+
+
+        /**
+         * Gets the average time to unmarshal the sample, in nanoseconds.
+         *
+         * @return the unmarshal time, or -1 if the provider failed
+         */
+        public long getUnmarshalNanos() {
+            return unmarshalNanos;
+        }
+
+
+        /**
+         * Gets the length of the xml produced by the provider.
+         *
+         * @return the xml length in bytes, or -1 if the provider failed
+         */
+        public int getXmlLength() {
+            return xmlLength;
+        }
+
+
+        /**
+         * Gets the error that stopped the provider.
+         *
+         * @return the error, or null if the provider succeeded
+         */
+        public Exception getError() {
+            return error;
+        }
+
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return "XmlBindings.BenchmarkResult [provider=" + providerName + ", error=" + error + "]";
+            }
+            return "XmlBindings.BenchmarkResult [provider=" + providerName + ", marshalNanos=" + marshalNanos + ", unmarshalNanos=" + unmarshalNanos + ", xmlLength="
+                    + xmlLength + "]";
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * The Class XmlCollectionWriter.
+ *
+ * Writes a document made of a root element wrapping any number of JAXB elements straight to an output stream. Each element is marshalled as a fragment as soon as it is
+ * written, so memory use stays flat regardless of how many elements are exported. Elements must be JAXB root elements or {@link javax.xml.bind.JAXBElement}s. The output
+ * stream belongs to the caller: {@link #close()} ends the document and flushes, but does not close the stream. Once writing an element has failed, or after
+ * {@link #abort()}, the document is never ended, so a truncated collection cannot be mistaken for a complete, well-formed one.
+ */
+public class XmlCollectionWriter implements Closeable, Flushable {
+    private static final Map<String, Object> FRAGMENT_PROPERTIES = Collections.<String, Object> singletonMap(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+
+    private final XMLStreamWriter writer;
+    private final JAXBContext context;
+    private final Marshaller marshaller;
+    private boolean closed;
+    private boolean failed;
+
+
+    /**
+     * Instantiates a new XML collection writer and writes the start of the document and the root element.
+     *
+     * @param outputStream the output stream
+     * @param rootElement the root element name
+     * @param jaxbClasses the jaxb classes of the elements
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public XmlCollectionWriter(OutputStream outputStream, QName rootElement, Class<?>... jaxbClasses) throws JAXBException, XMLStreamException {
+        this.context = JAXBContextRegistry.getContext(jaxbClasses);
+        // borrowed first, so that a failed borrow leaves no stream writer behind
+        this.marshaller = JAXBMarshallerPool.borrowMarshaller(context, FRAGMENT_PROPERTIES);
+        try {
+            this.writer = StaxFactories.getOutputFactory().createXMLStreamWriter(outputStream, "UTF-8");
+        } catch (XMLStreamException | RuntimeException e) {
+            JAXBMarshallerPool.returnMarshaller(context, FRAGMENT_PROPERTIES, marshaller);
+            throw e;
+        }
+        try {
+            writeStart(rootElement);
+        } catch (XMLStreamException | RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+
+    private void writeStart(QName rootElement) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        String namespace = rootElement.getNamespaceURI();
+        if (XMLConstants.NULL_NS_URI.equals(namespace)) {
+            writer.writeStartElement(rootElement.getLocalPart());
+        } else {
+            String prefix = rootElement.getPrefix();
+            writer.setPrefix(prefix, namespace);
+            writer.writeStartElement(prefix, rootElement.getLocalPart(), namespace);
+            if (XMLConstants.DEFAULT_NS_PREFIX.equals(prefix)) {
+                writer.writeDefaultNamespace(namespace);
+            } else {
+                writer.writeNamespace(prefix, namespace);
+            }
+        }
+    }
+
+
+    /**
+     * Marshals one element into the document.
+     *
+     * @param element the element
+     * @throws JAXBException the JAXB exception
+     */
+    public void write(Object element) throws JAXBException {
+        if (closed) {
+            throw new IllegalStateException("The collection writer is closed");
+        }
+        try {
+            marshaller.marshal(element, writer);
+        } catch (JAXBException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+
+    /**
+     * Marshals every remaining element of an iterator into the document.
+     *
+     * @param elements the elements
+     * @return the number of elements written
+     * @throws JAXBException the JAXB exception
+     */
+    public long writeAll(Iterator<?> elements) throws JAXBException {
+        long count = 0;
+        while (true) {
+            Object element;
+            try {
+                if (!elements.hasNext()) {
+                    return count;
+                }
+                element = elements.next();
+            } catch (RuntimeException e) {
+                failed = true;
+                throw e;
+            }
+            write(element);
+            count++;
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Flushable#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+        try {
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+
+    /**
+     * Ends the root element and the document and flushes the output stream, which is left open. If writing an element failed, this behaves like {@link #abort()}.
+     *
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (failed) {
+            abort();
+            return;
+        }
+        closed = true;
+        try {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            JAXBMarshallerPool.returnMarshaller(context, FRAGMENT_PROPERTIES, marshaller);
+        }
+    }
+
+
+    /**
+     * Stops writing without ending the root element or the document, leaving the output truncated, and releases the marshaller. The output stream is left open and
+     * nothing is thrown, so this can be called while handling another failure.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // only flushed: closing the stream writer would let some implementations end the open elements
+            writer.flush();
+        } catch (XMLStreamException e) {
+            // the output is abandoned anyway
+        } finally {
+            JAXBMarshallerPool.returnMarshaller(context, FRAGMENT_PROPERTIES, marshaller);
+        }
+    }
+}
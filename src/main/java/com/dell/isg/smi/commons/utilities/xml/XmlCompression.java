@@ -0,0 +1,49 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+
+/**
+ * The Class XmlCompression.
+ *
+ * Recognizes XML input written with {@link XmlOutputProfile#GZIP} or {@link XmlOutputProfile#DEFLATE} by its leading bytes. A document can only start with markup,
+ * whitespace or a byte order mark, none of which collide with the gzip magic number or a zlib header.
+ */
+final class XmlCompression {
+    private static final int BUFFER_SIZE = 8192;
+
+
+    private XmlCompression() {
+    }
+
+
+    /**
+     * Wraps a stream so that compressed content is inflated. Closing the returned stream releases the inflater but leaves the given stream open.
+     *
+     * @param in the input stream
+     * @return the decoded stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    static InputStream decode(InputStream in) throws IOException {
+        InputStream buffered = new BufferedInputStream(StreamUtils.nonClosing(in), BUFFER_SIZE);
+        buffered.mark(2);
+        int b0 = buffered.read();
+        int b1 = buffered.read();
+        buffered.reset();
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        if (b0 >= 0 && b1 >= 0 && (b0 & 0x0f) == 8 && (b0 >> 4) <= 7 && ((b0 << 8) | b1) % 31 == 0) {
+            return new InflaterInputStream(buffered);
+        }
+        return buffered;
+    }
+}
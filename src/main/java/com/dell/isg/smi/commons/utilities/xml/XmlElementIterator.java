@@ -0,0 +1,252 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.beans.Introspector;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSchema;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+
+/**
+ * The Class XmlElementIterator.
+ *
+ * Iterates over the repeated elements of an XML document, unmarshalling one matching element at a time from a StAX cursor so that memory use does not grow with the
+ * document. Elements are selected by name, or by a simple element path such as {@code Envelope/Body/Item} to pull embedded objects out of a larger document; elements that
+ * do not match are skipped without being bound. The iterator owns the input stream: it is closed once the last element has been read, or
+ * earlier by {@link #close()} to stop iterating. Binding failures during iteration are thrown as {@link DataBindingException}.
+ *
+ * @param <T> the element type
+ */
+public class XmlElementIterator<T> implements Iterator<T>, Closeable {
+    private static final Pattern PLAIN_CAMEL_CASE = Pattern.compile("[a-z]{2}[A-Za-z]*[0-9]*");
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+    private final JAXBContext context;
+    private final Unmarshaller unmarshaller;
+    private final Class<T> type;
+    private final QName elementName;
+    private final boolean matchNamespace;
+    private final SimpleXmlPath elementPath;
+    private final List<QName> openElements;
+
+    private T nextElement;
+    private boolean closed;
+
+
+    /**
+     * Instantiates a new XML element iterator matching elements by qualified name. An element name without a namespace URI matches on the local name alone.
+     *
+     * @param inputStream the input stream
+     * @param elementName the element name
+     * @param type the element type
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public XmlElementIterator(InputStream inputStream, QName elementName, Class<T> type) throws JAXBException, XMLStreamException {
+        this(inputStream, elementName, null, type);
+    }
+
+
+    /**
+     * Instantiates a new XML element iterator matching elements by a simple element path. A path starting with {@code /} is anchored at the root element, otherwise it
+     * matches elements whose ancestors end with the given steps, compared by local name or, for steps with a colon, by prefixed name.
+     *
+     * @param inputStream the input stream
+     * @param elementPath the element path, such as Envelope/Body/Item
+     * @param type the element type
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public XmlElementIterator(InputStream inputStream, String elementPath, Class<T> type) throws JAXBException, XMLStreamException {
+        this(inputStream, null, new SimpleXmlPath(elementPath), type);
+    }
+
+
+    private XmlElementIterator(InputStream inputStream, QName elementName, SimpleXmlPath elementPath, Class<T> type) throws JAXBException, XMLStreamException {
+        this.inputStream = inputStream;
+        this.type = type;
+        this.elementPath = elementPath;
+        this.openElements = elementPath != null ? new ArrayList<QName>() : null;
+        try {
+            this.context = JAXBContextRegistry.getContext(type);
+            this.elementName = elementName != null || elementPath != null ? elementName : getElementName(type);
+            this.unmarshaller = JAXBMarshallerPool.borrowUnmarshaller(context);
+        } catch (JAXBException | RuntimeException e) {
+            StreamUtils.closeStreamQuietly(inputStream);
+            throw e;
+        }
+        this.matchNamespace = this.elementName != null && !XMLConstants.NULL_NS_URI.equals(this.elementName.getNamespaceURI());
+        try {
+            this.reader = StaxFactories.getInputFactory().createXMLStreamReader(inputStream);
+        } catch (XMLStreamException e) {
+            JAXBMarshallerPool.returnUnmarshaller(context, unmarshaller);
+            StreamUtils.closeStreamQuietly(inputStream);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Instantiates a new XML element iterator matching the root element name declared by the type's {@link XmlRootElement} annotation. A defaulted name is derived
+     * from the class name when that is unambiguous; otherwise, as for a type without the annotation, an {@link IllegalArgumentException} asks for an element name.
+     *
+     * @param inputStream the input stream
+     * @param type the element type
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public XmlElementIterator(InputStream inputStream, Class<T> type) throws JAXBException, XMLStreamException {
+        this(inputStream, null, null, type);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextElement != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            while (reader.hasNext()) {
+                if (reader.isStartElement()) {
+                    if (openElements != null) {
+                        openElements.add(reader.getName());
+                    }
+                    if (matches(reader.getName())) {
+                        // the unmarshaller consumes the element up to and including its end tag
+                        nextElement = unmarshaller.unmarshal(reader, type).getValue();
+                        if (openElements != null) {
+                            openElements.remove(openElements.size() - 1);
+                        }
+                        return true;
+                    }
+                } else if (openElements != null && reader.isEndElement()) {
+                    openElements.remove(openElements.size() - 1);
+                }
+                reader.next();
+            }
+        } catch (XMLStreamException e) {
+            close();
+            throw new DataBindingException(e);
+        } catch (JAXBException e) {
+            close();
+            throw new DataBindingException(e);
+        }
+        close();
+        return false;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = nextElement;
+        nextElement = null;
+        return element;
+    }
+
+
+    /**
+     * Returns a sequential stream over the remaining elements. Closing the stream closes this iterator.
+     *
+     * @return the stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+
+    /**
+     * Stops the iteration and closes the underlying reader and input stream.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // the input stream is closed below regardless
+        }
+        StreamUtils.closeStreamQuietly(inputStream);
+        JAXBMarshallerPool.returnUnmarshaller(context, unmarshaller);
+    }
+
+
+    private boolean matches(QName name) {
+        if (elementPath != null) {
+            return elementPath.matches(openElements);
+        }
+        if (!elementName.getLocalPart().equals(name.getLocalPart())) {
+            return false;
+        }
+        return !matchNamespace || elementName.getNamespaceURI().equals(name.getNamespaceURI());
+    }
+
+
+    /**
+     * Gets the element name declared by a type's {@link XmlRootElement} annotation. A name left unset is derived from the simple class name as JAXB does, which is
+     * only unambiguous for plain camel case such as {@code ItemView}; other names, such as {@code NICView}, must be passed explicitly. A namespace left unset is the
+     * one declared by the package's {@link XmlSchema}, if any.
+     *
+     * @param type the type
+     * @return the element name
+     */
+    static QName getElementName(Class<?> type) {
+        XmlRootElement root = type.getAnnotation(XmlRootElement.class);
+        if (root == null) {
+            throw new IllegalArgumentException(type.getName() + " is not annotated with @XmlRootElement, an element name is required");
+        }
+        String localName = root.name();
+        if ("##default".equals(localName)) {
+            localName = Introspector.decapitalize(type.getSimpleName());
+            if (!PLAIN_CAMEL_CASE.matcher(localName).matches()) {
+                throw new IllegalArgumentException("The default element name of " + type.getName() + " is ambiguous, an element name is required");
+            }
+        }
+        String namespace = root.namespace();
+        if ("##default".equals(namespace)) {
+            Package pkg = type.getPackage();
+            XmlSchema schema = pkg != null ? pkg.getAnnotation(XmlSchema.class) : null;
+            namespace = schema != null ? schema.namespace() : XMLConstants.NULL_NS_URI;
+        }
+        return new QName(namespace, localName);
+    }
+}
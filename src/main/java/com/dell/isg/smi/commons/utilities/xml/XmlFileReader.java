@@ -0,0 +1,116 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The Class XmlFileReader.
+ *
+ * Reads XML files as raw bytes for the parsers, so the original content and encoding reach the parser unchanged. Files are read through a buffered stream rather than
+ * memory mapped: the parsers copy the bytes into their own buffers anyway, and a mapping would hold the file open, and on Windows locked against replacement, until it
+ * is garbage collected.
+ */
+final class XmlFileReader {
+    private static final int DECLARATION_LIMIT = 1024;
+    private static final Pattern ENCODING_DECLARATION = Pattern.compile("^<\\?xml[^>]*?encoding\\s*=\\s*[\"']([A-Za-z][A-Za-z0-9._\\-]*)[\"']");
+
+
+    private XmlFileReader() {
+    }
+
+
+    /**
+     * Opens a file for parsing.
+     *
+     * @param file the file
+     * @return the input stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    static InputStream open(File file) throws IOException {
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+
+
+    /**
+     * Reads a file as text, decoded with the encoding given by its byte order mark or XML declaration, UTF-8 otherwise.
+     *
+     * @param file the file
+     * @return the text
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    static String readString(File file) throws IOException {
+        ByteBuffer content = read(file);
+        Charset charset = detectCharset(content);
+        String text = charset.decode(content).toString();
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+
+    /**
+     * Detects the character set of XML content from its byte order mark or XML declaration. The buffer position is not changed.
+     *
+     * @param content the content
+     * @return the charset
+     */
+    static Charset detectCharset(ByteBuffer content) {
+        ByteBuffer head = content.duplicate();
+        int b0 = head.remaining() > 0 ? head.get(head.position()) & 0xff : -1;
+        int b1 = head.remaining() > 1 ? head.get(head.position() + 1) & 0xff : -1;
+        if (b0 == 0xfe && b1 == 0xff || b0 == 0x00 && b1 == 0x3c) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (b0 == 0xff && b1 == 0xfe || b0 == 0x3c && b1 == 0x00) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (hasUtf8ByteOrderMark(head)) {
+            return StandardCharsets.UTF_8;
+        }
+
+        int length = Math.min(head.remaining(), DECLARATION_LIMIT);
+        byte[] declaration = new byte[length];
+        head.get(declaration);
+        Matcher matcher = ENCODING_DECLARATION.matcher(new String(declaration, StandardCharsets.ISO_8859_1));
+        if (matcher.find() && Charset.isSupported(matcher.group(1))) {
+            return Charset.forName(matcher.group(1));
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+
+    private static boolean hasUtf8ByteOrderMark(ByteBuffer content) {
+        int p = content.position();
+        return content.remaining() >= 3 && (content.get(p) & 0xff) == 0xef && (content.get(p + 1) & 0xff) == 0xbb && (content.get(p + 2) & 0xff) == 0xbf;
+    }
+
+
+    private static ByteBuffer read(File file) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            FileChannel channel = stream.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File is too large to read as text: " + file);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading until the buffer is full
+            }
+            buffer.flip();
+            return buffer;
+        } finally {
+            stream.close();
+        }
+    }
+}
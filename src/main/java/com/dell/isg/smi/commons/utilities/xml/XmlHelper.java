@@ -6,19 +6,22 @@
  */
 package com.dell.isg.smi.commons.utilities.xml;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
-import javax.xml.XMLConstants;
+import javax.xml.bind.DataBindingException;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -26,20 +29,15 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Source;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,11 +45,18 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import com.dell.isg.smi.commons.utilities.stream.StreamUtils;
+
 
 /**
  * The Class XmlHelper.
+ *
+ * The single-class marshal and unmarshal methods go through the {@link XmlBindingProvider} that {@link XmlBindings} selects for the class. With the default JAXB
+ * provider, unmarshalling still resolves the type from the root element; another provider binds the document to the requested class. Methods that depend on
+ * JAXB-specific input or output - DOM nodes, JAXBElement wrapping, StAX writers with namespace bindings and element-path selection on a StAX cursor - always use JAXB.
  */
 public class XmlHelper {
 
@@ -68,9 +73,8 @@ public class XmlHelper {
 
         try {
             StringWriter writer = new StringWriter();
-            JAXBContext context = JAXBContext.newInstance(target.getClass());
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.marshal(target, writer);
+            Class<Object> type = typeOf(target);
+            XmlBindings.getProvider(type).marshal(target, type, writer);
             result = writer.toString();
         } catch (Exception e) {
             logger.error("failed in GetXmlFromObject", e);
@@ -82,7 +86,8 @@ public class XmlHelper {
 
 
     /**
-     * Xml to object.
+     * Xml to object. With the JAXB provider the type is resolved from the root element, so a class without {@code @XmlRootElement} yields a {@link JAXBElement}; a provider
+     * selected through {@link XmlBindings} binds the document to {@code cls}.
      *
      * @param xmlString the xml string
      * @param validate the validate
@@ -91,9 +96,111 @@ public class XmlHelper {
      * @throws JAXBException the JAXB exception
      */
     public static Object xmlToObject(String xmlString, boolean validate, Class cls) throws JAXBException {
-        JAXBContext jc = JAXBContext.newInstance(cls);
-        Unmarshaller u = jc.createUnmarshaller();
-        return u.unmarshal(new StreamSource(new StringReader(xmlString)));
+        XmlBindingProvider provider = XmlBindings.getProvider(cls);
+        if (provider == JaxbXmlBindingProvider.INSTANCE) {
+            return xmlToObject(new StreamSource(new StringReader(xmlString)), cls);
+        }
+        return provider.unmarshal(new StringReader(xmlString), cls);
+    }
+
+
+    /**
+     * Xml to object, decoding the bytes with the encoding declared by the document. With the JAXB provider the type is resolved from the root element, so a class without
+     * {@code @XmlRootElement} yields a {@link JAXBElement}; a provider selected through {@link XmlBindings} binds the document to {@code cls}.
+     *
+     * @param xmlBytes the xml bytes
+     * @param cls the cls
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object xmlToObject(byte[] xmlBytes, Class cls) throws JAXBException {
+        return xmlToObject(new ByteArrayInputStream(xmlBytes), cls);
+    }
+
+
+    /**
+     * Xml to object, decoding the stream with the encoding declared by the document. The stream is not closed. With the JAXB provider the type is resolved from the root
+     * element, so a class without {@code @XmlRootElement} yields a {@link JAXBElement}; a provider selected through {@link XmlBindings} binds the document to {@code cls}.
+     *
+     * @param inputStream the input stream
+     * @param cls the cls
+     * @return the object
+     * @throws JAXBException the JAXB exception
+     */
+    public static Object xmlToObject(InputStream inputStream, Class cls) throws JAXBException {
+        XmlBindingProvider provider = XmlBindings.getProvider(cls);
+        if (provider == JaxbXmlBindingProvider.INSTANCE) {
+            return xmlToObject(new StreamSource(inputStream), cls);
+        }
+        return provider.unmarshal(inputStream, cls);
+    }
+
+
+    private static Object xmlToObject(Source source, Class<?> cls) throws JAXBException {
+        JAXBContext jc = JAXBContextRegistry.getContext(cls);
+        Unmarshaller u = JAXBMarshallerPool.borrowUnmarshaller(jc);
+        try {
+            return u.unmarshal(source);
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(jc, u);
+        }
+    }
+
+
+    /**
+     * Xml to object, unmarshalling only the first element selected by a simple element path such as Envelope/Body/Item. The stream is read up to the end of that
+     * element, without building a document, and is not closed. The element is always bound with JAXB, which reads it from the StAX cursor.
+     *
+     * @param <T> the generic type
+     * @param inputStream the input stream
+     * @param elementPath the element path
+     * @param cls the cls
+     * @return the object, or null if no element matched
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static <T> T xmlToObject(InputStream inputStream, String elementPath, Class<T> cls) throws JAXBException, XMLStreamException {
+        try (XmlElementIterator<T> elements = new XmlElementIterator<T>(StreamUtils.nonClosing(inputStream), elementPath, cls)) {
+            return elements.hasNext() ? elements.next() : null;
+        } catch (DataBindingException e) {
+            throw unwrap(e);
+        }
+    }
+
+
+    /**
+     * Xml to objects, unmarshalling every element selected by a simple element path such as Envelope/Body/Item. Other elements are skipped without building a document.
+     * The stream is not closed. The elements are always bound with JAXB, which reads them from the StAX cursor.
+     *
+     * @param <T> the generic type
+     * @param inputStream the input stream
+     * @param elementPath the element path
+     * @param cls the cls
+     * @return the objects, in document order
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static <T> List<T> xmlToObjects(InputStream inputStream, String elementPath, Class<T> cls) throws JAXBException, XMLStreamException {
+        List<T> objects = new ArrayList<>();
+        try (XmlElementIterator<T> elements = new XmlElementIterator<T>(StreamUtils.nonClosing(inputStream), elementPath, cls)) {
+            while (elements.hasNext()) {
+                objects.add(elements.next());
+            }
+        } catch (DataBindingException e) {
+            throw unwrap(e);
+        }
+        return objects;
+    }
+
+
+    private static JAXBException unwrap(DataBindingException e) throws XMLStreamException {
+        if (e.getCause() instanceof XMLStreamException) {
+            throw (XMLStreamException) e.getCause();
+        }
+        if (e.getCause() instanceof JAXBException) {
+            return (JAXBException) e.getCause();
+        }
+        throw e;
     }
 
 
@@ -106,10 +213,14 @@ public class XmlHelper {
      * @throws JAXBException the JAXB exception
      */
     public static Object xmlToObject(Node node, Class cls) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(cls);
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        JAXBElement root = unmarshaller.unmarshal(node, cls);
-        return root.getValue();
+        JAXBContext jaxbContext = JAXBContextRegistry.getContext(cls);
+        Unmarshaller unmarshaller = JAXBMarshallerPool.borrowUnmarshaller(jaxbContext);
+        try {
+            JAXBElement root = unmarshaller.unmarshal(node, cls);
+            return root.getValue();
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(jaxbContext, unmarshaller);
+        }
     }
 
 
@@ -122,10 +233,14 @@ public class XmlHelper {
      * @throws JAXBException the JAXB exception
      */
     public static String objectToComplexXmlTypeString(Object obj, String rootName) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(obj.getClass());
-        Marshaller marshaller = jaxbContext.createMarshaller();
+        JAXBContext jaxbContext = JAXBContextRegistry.getContext(obj.getClass());
+        Marshaller marshaller = JAXBMarshallerPool.borrowMarshaller(jaxbContext);
         StringWriter sw = new StringWriter();
-        marshaller.marshal(new JAXBElement(new QName("", rootName), obj.getClass(), obj), sw);
+        try {
+            marshaller.marshal(new JAXBElement(new QName("", rootName), obj.getClass(), obj), sw);
+        } finally {
+            JAXBMarshallerPool.returnMarshaller(jaxbContext, marshaller);
+        }
         return sw.toString();
     }
 
@@ -139,10 +254,14 @@ public class XmlHelper {
      * @throws JAXBException the JAXB exception
      */
     public static Object complexTypeXMLStrToObject(Class cls, String xml) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(cls);
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        JAXBElement biosAttrDetails = unmarshaller.unmarshal(new StreamSource(new StringReader(xml)), cls);
-        return biosAttrDetails.getValue();
+        JAXBContext jaxbContext = JAXBContextRegistry.getContext(cls);
+        Unmarshaller unmarshaller = JAXBMarshallerPool.borrowUnmarshaller(jaxbContext);
+        try {
+            JAXBElement biosAttrDetails = unmarshaller.unmarshal(new StreamSource(new StringReader(xml)), cls);
+            return biosAttrDetails.getValue();
+        } finally {
+            JAXBMarshallerPool.returnUnmarshaller(jaxbContext, unmarshaller);
+        }
     }
 
 
@@ -158,17 +277,9 @@ public class XmlHelper {
 
         try {
             StringWriter writer = new StringWriter();
-            XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
-            Iterator<Entry<String, String>> it = nameSpaceMap.entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry<String, String> entry = it.next();
-                xmlStreamWriter.setPrefix(entry.getKey(), entry.getValue());
-            }
-
-            JAXBContext context = JAXBContext.newInstance(target.getClass());
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.marshal(target, xmlStreamWriter);
-            result = FixNameSpace(nameSpaceMap, writer.toString());
+            XMLStreamWriter xmlStreamWriter = StaxFactories.getOutputFactory().createXMLStreamWriter(writer);
+            marshal(target, new NamespaceBindingXMLStreamWriter(xmlStreamWriter, nameSpaceMap));
+            result = writer.toString();
         } catch (Exception e) {
             logger.error("failed in GetXmlFromObject", e);
         }
@@ -178,38 +289,107 @@ public class XmlHelper {
 
 
     /**
-     * Fix name space.
+     * Writes the xml of an object to an output stream as UTF-8.
      *
-     * @param nameSpaceMap the name space map
      * @param target the target
-     * @return String that represent the object
+     * @param outputStream the output stream, left open
+     * @throws JAXBException the JAXB exception
+     */
+    public static void writeXmlFromObject(Object target, OutputStream outputStream) throws JAXBException {
+        Class<Object> type = typeOf(target);
+        XmlBindings.getProvider(type).marshal(target, type, outputStream);
+    }
+
+
+    /**
+     * Writes the xml of an object to an output stream, declaring the given prefixes on the root element.
+     *
+     * @param target the target
+     * @param nameSpaceMap the name space map
+     * @param outputStream the output stream, flushed but left open
+     * @throws JAXBException the JAXB exception
+     * @throws XMLStreamException the XML stream exception
      */
-    private static String FixNameSpace(HashMap<String, String> nameSpaceMap, String target) {
-        StringBuilder nameSpaceContents = new StringBuilder();
-        Iterator<Entry<String, String>> it = nameSpaceMap.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<String, String> entry = it.next();
-            nameSpaceContents.append("xmlns:" + entry.getKey() + "=\"" + entry.getValue() + "\" ");
+    public static void writeXmlFromObject(Object target, Map<String, String> nameSpaceMap, OutputStream outputStream) throws JAXBException, XMLStreamException {
+        XMLStreamWriter xmlStreamWriter = StaxFactories.getOutputFactory().createXMLStreamWriter(outputStream, "UTF-8");
+        marshal(target, new NamespaceBindingXMLStreamWriter(xmlStreamWriter, nameSpaceMap));
+        xmlStreamWriter.flush();
+    }
+
+
+    private static void marshal(Object target, XMLStreamWriter xmlStreamWriter) throws JAXBException {
+        JAXBContext context = JAXBContextRegistry.getContext(target.getClass());
+        Marshaller marshaller = JAXBMarshallerPool.borrowMarshaller(context);
+        try {
+            marshaller.marshal(target, xmlStreamWriter);
+        } finally {
+            JAXBMarshallerPool.returnMarshaller(context, marshaller);
         }
-        return target.replaceAll("xmlns=\"\"", nameSpaceContents.toString());
     }
 
 
     /**
-     * Gets the object from xml.
+     * Gets the object from xml. With the JAXB provider the type is resolved from the root element, which must map to the target's class or a {@link ClassCastException} is
+     * thrown; a provider selected through {@link XmlBindings} binds the document to the target's class.
      *
      * @param target the target
      * @param xml the xml
      * @return Object
      */
     public static Object GetObjectFromXml(Object target, String xml) {
+        return GetObjectFromXml(target, new StringReader(xml));
+    }
+
+
+    /**
+     * Gets the object from xml bytes, decoded with the encoding declared by the document. With the JAXB provider the type is resolved from the root element, which must map
+     * to the target's class or a {@link ClassCastException} is thrown; a provider selected through {@link XmlBindings} binds the document to the target's class.
+     *
+     * @param target the target
+     * @param xml the xml
+     * @return Object
+     */
+    public static Object GetObjectFromXml(Object target, byte[] xml) {
+        return GetObjectFromXml(target, new ByteArrayInputStream(xml));
+    }
+
+
+    /**
+     * Gets the object from an xml stream, decoded with the encoding declared by the document. The stream is not closed. With the JAXB provider the type is resolved from
+     * the root element, which must map to the target's class or a {@link ClassCastException} is thrown; a provider selected through {@link XmlBindings} binds the document
+     * to the target's class.
+     *
+     * @param target the target
+     * @param xml the xml
+     * @return Object
+     */
+    public static Object GetObjectFromXml(Object target, InputStream xml) {
+        Object xmlObject = null;
+        try {
+            Class<Object> type = typeOf(target);
+            XmlBindingProvider provider = XmlBindings.getProvider(type);
+            if (provider == JaxbXmlBindingProvider.INSTANCE) {
+                xmlObject = type.cast(xmlToObject(new StreamSource(xml), type));
+            } else {
+                xmlObject = provider.unmarshal(xml, type);
+            }
+        } catch (JAXBException e) {
+            logger.error("failed in GetXmlFromObject", e);
+        }
+        return xmlObject;
+    }
+
+
+    private static Object GetObjectFromXml(Object target, Reader xml) {
         Object xmlObject = null;
         try {
-            ByteArrayInputStream stream = new ByteArrayInputStream(xml.getBytes());
-            JAXBContext context = JAXBContext.newInstance(target.getClass());
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            unmarshaller.setSchema(null);
-            xmlObject = target.getClass().cast(unmarshaller.unmarshal(stream));
+            Class<Object> type = typeOf(target);
+            XmlBindingProvider provider = XmlBindings.getProvider(type);
+            if (provider == JaxbXmlBindingProvider.INSTANCE) {
+                xmlObject = type.cast(xmlToObject(new StreamSource(xml), type));
+            } else {
+                xmlObject = provider.unmarshal(xml, type);
+            }
         } catch (JAXBException e) {
             logger.error("failed in GetXmlFromObject", e);
         }
@@ -217,6 +397,12 @@ public class XmlHelper {
     }
 
 
+    @SuppressWarnings("unchecked")
+    private static Class<Object> typeOf(Object target) {
+        return (Class<Object>) target.getClass();
+    }
+
+
     /**
      * Convert string to XML document.
      *
@@ -242,8 +428,7 @@ public class XmlHelper {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public static Document convertStringToXMLDocument(String xmlSource, boolean namespaceAware) throws ParserConfigurationException, SAXException, IOException {
-        InputStream inputStream = new ByteArrayInputStream(xmlSource.getBytes());
-        return convertInputStreamToXmlDocument(inputStream, namespaceAware);
+        return parse(new InputSource(new StringReader(xmlSource)), namespaceAware);
     }
 
 
@@ -288,12 +473,17 @@ public class XmlHelper {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public static Document convertInputStreamToXmlDocument(InputStream inputStream, boolean namespaceAware) throws ParserConfigurationException, SAXException, IOException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(namespaceAware);
-        factory.setFeature(javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        builder.setEntityResolver(new NullXmlEntityResolver());
-        return builder.parse(inputStream);
+        return parse(new InputSource(inputStream), namespaceAware);
+    }
+
+
+    private static Document parse(InputSource inputSource, boolean namespaceAware) throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilder builder = DocumentBuilderPool.borrowBuilder(namespaceAware);
+        try {
+            return builder.parse(inputSource);
+        } finally {
+            DocumentBuilderPool.returnBuilder(namespaceAware, builder);
+        }
     }
 
 
@@ -307,26 +497,28 @@ public class XmlHelper {
      * @throws SAXException the SAX exception
      */
     public static Document convertFileToXMLDocument(String xmlSource) throws IOException, ParserConfigurationException, SAXException {
-        StringBuilder stringBuilder = new StringBuilder();
-        FileReader fileReader = null;
-        BufferedReader br = null;
-        try {
-            fileReader = new FileReader(xmlSource);
-            br = new BufferedReader(fileReader);
-            String strLine = null;
-            // Read File Line By Line
-            while ((strLine = br.readLine()) != null) {
-                stringBuilder.append(strLine);
-            }
-            return convertStringToXMLDocument(stringBuilder.toString());
+        return convertFileToXMLDocument(xmlSource, false);
+    }
 
+
+    /**
+     * Convert file to XML document. The file bytes are handed to the parser as they are, so the declared encoding and all whitespace are preserved.
+     *
+     * @param xmlSource the xml source
+     * @param namespaceAware the namespace aware
+     * @return the document
+     * @throws IOException Signals that an I/O exception has occurred.
+     * @throws ParserConfigurationException the parser configuration exception
+     * @throws SAXException the SAX exception
+     */
+    public static Document convertFileToXMLDocument(String xmlSource, boolean namespaceAware) throws IOException, ParserConfigurationException, SAXException {
+        InputStream inputStream = null;
+        try {
+            inputStream = XmlFileReader.open(new File(xmlSource));
+            return convertInputStreamToXmlDocument(inputStream, namespaceAware);
         } finally {
-            if (fileReader != null) {
-                fileReader.close();
-            }
-            
-            if (br != null) {
-                br.close();
+            if (inputStream != null) {
+                inputStream.close();
             }
         }
     }
@@ -342,10 +534,20 @@ public class XmlHelper {
      * @throws XPathExpressionException the x path expression exception
      */
     public static Object findObjectInDocument(Document doc, String xPathLocation, QName qname) throws XPathExpressionException {
-        XPathFactory factory = XPathFactory.newInstance();
-        XPath xpath = factory.newXPath();
-        XPathExpression expr = xpath.compile(xPathLocation);
-        return expr.evaluate(doc, qname);
+        return XPathExpressionCache.evaluate(doc, xPathLocation, qname);
+    }
+
+
+    /**
+     * Find objects in document, evaluating every expression against the same document.
+     *
+     * @param doc the doc
+     * @param xPathLocations the x path locations and their return types
+     * @return the objects, keyed by x path location
+     * @throws XPathExpressionException the x path expression exception
+     */
+    public static Map<String, Object> findObjectsInDocument(Document doc, Map<String, QName> xPathLocations) throws XPathExpressionException {
+        return XPathExpressionCache.evaluateAll(doc, xPathLocations);
     }
 
 
@@ -377,6 +579,46 @@ public class XmlHelper {
     }
 
 
+    /**
+     * Find object in an indexed document, the DOM-free counterpart of {@link #findObjectInDocument(Document, String)}.
+     *
+     * @param doc the indexed document
+     * @param nodeName the node name
+     * @return the object
+     */
+    public static Object findObjectInDocument(IndexedXmlDocument doc, String nodeName) {
+        return doc.findValue(nodeName);
+    }
+
+
+    /**
+     * Find values in xml without building a document. Reads the xml once and stops as soon as every value has been found.
+     *
+     * @param xml the xml
+     * @param nodeNames the node names or simple element paths, such as Body/Item/InstanceID
+     * @return the text of the first element matching each name, for the names that were found
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static Map<String, String> findValuesInXml(byte[] xml, Collection<String> nodeNames) throws XMLStreamException {
+        return XmlValueExtractor.extract(xml, nodeNames);
+    }
+
+
+    /**
+     * Find value in xml without building a document. Unlike {@link #findObjectInDocument(Document, String)}, the root element can match and the value is all of the
+     * text directly contained by the element, not only its first child node, so an element whose first child is another element still yields its own text.
+     *
+     * @param xml the xml
+     * @param nodeName the node name or simple element path
+     * @return the text of the first matching element, or an empty string if none matched
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static String findValueInXml(byte[] xml, String nodeName) throws XMLStreamException {
+        String value = XmlValueExtractor.extract(xml, nodeName);
+        return value != null ? value : "";
+    }
+
+
     /*
      * utility function to convert XML doc into Java String
      */
@@ -392,13 +634,45 @@ public class XmlHelper {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public static String convertDocumenttoString(Document document) throws ParserConfigurationException, TransformerException, SAXException, IOException {
-        DOMSource domSource = new DOMSource(document);
         StringWriter writer = new StringWriter();
-        StreamResult result = new StreamResult(writer);
-        TransformerFactory tf = TransformerFactory.newInstance();
-        tf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        Transformer transformer = tf.newTransformer();
-        transformer.transform(domSource, result);
+        writeDocument(document, writer);
         return writer.toString();
     }
+
+
+    /**
+     * Writes a document to an output stream without building an intermediate string.
+     *
+     * @param document the document
+     * @param outputStream the output stream
+     * @throws TransformerException the transformer exception
+     */
+    public static void writeDocument(Document document, OutputStream outputStream) throws TransformerException {
+        TransformerCache.serialize(new DOMSource(document), new StreamResult(outputStream));
+    }
+
+
+    /**
+     * Writes a document to a writer.
+     *
+     * @param document the document
+     * @param writer the writer
+     * @throws TransformerException the transformer exception
+     */
+    public static void writeDocument(Document document, Writer writer) throws TransformerException {
+        TransformerCache.serialize(new DOMSource(document), new StreamResult(writer));
+    }
+
+
+    /**
+     * Applies a stylesheet registered with {@link TransformerCache#registerStylesheet(String, javax.xml.transform.Source)} to a streamed xml source.
+     *
+     * @param stylesheetName the stylesheet name
+     * @param inputStream the input stream
+     * @param outputStream the output stream
+     * @throws TransformerException the transformer exception
+     */
+    public static void transformXml(String stylesheetName, InputStream inputStream, OutputStream outputStream) throws TransformerException {
+        TransformerCache.transform(stylesheetName, new StreamSource(inputStream), new StreamResult(outputStream));
+    }
 }
\ No newline at end of file
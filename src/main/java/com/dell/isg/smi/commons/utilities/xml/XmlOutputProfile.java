@@ -0,0 +1,154 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Enum XmlOutputProfile.
+ *
+ * How {@link XMLUtil} writes marshalled XML. {@link #PRETTY} is the indented output the utilities have always produced; {@link #COMPACT} drops the indentation, and
+ * {@link #GZIP} and {@link #DEFLATE} stream compact output through a gzip or zlib compressor. Compressed output is recognized by {@link XMLUtil#parseXML(String, Class[])}
+ * and {@link XMLUtil#parseXMLFromStream(java.io.InputStream, Class[])}.
+ */
+public enum XmlOutputProfile {
+
+    /** Unindented output. */
+    COMPACT(JAXBMarshallerPool.DEFAULT_PROPERTIES),
+
+    /** Indented output. */
+    PRETTY(JAXBMarshallerPool.FORMATTED_OUTPUT_PROPERTIES),
+
+    /** Unindented output, gzip compressed. */
+    GZIP(JAXBMarshallerPool.DEFAULT_PROPERTIES) {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new GzipStream(out);
+        }
+    },
+
+    /** Unindented output, zlib compressed. */
+    DEFLATE(JAXBMarshallerPool.DEFAULT_PROPERTIES) {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new ZlibStream(out);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, Object> marshallerProperties;
+
+
+    private XmlOutputProfile(Map<String, Object> marshallerProperties) {
+        this.marshallerProperties = marshallerProperties;
+    }
+
+
+    /**
+     * Gets the marshaller property profile, as pooled by {@link JAXBMarshallerPool}.
+     *
+     * @return the marshaller properties
+     */
+    Map<String, Object> getMarshallerProperties() {
+        return marshallerProperties;
+    }
+
+
+    /**
+     * Wraps the destination stream with the encoding of this profile.
+     *
+     * @param out the destination stream
+     * @return the stream to marshal to
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    OutputStream wrap(OutputStream out) throws IOException {
+        return out;
+    }
+
+
+    /**
+     * Completes the encoding started by {@link #wrap(OutputStream)} and releases the compressor, without closing the destination stream.
+     *
+     * @param wrapped the stream returned by wrap
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    void finish(OutputStream wrapped) throws IOException {
+        if (wrapped instanceof DeflaterOutputStream) {
+            ((DeflaterOutputStream) wrapped).finish();
+        }
+        wrapped.flush();
+    }
+
+
+    /**
+     * Releases the compressor of a stream returned by {@link #wrap(OutputStream)}, whether or not it was finished. Must be called once the stream is no longer used,
+     * normally in a finally block, so a failed write does not leak the compressor's native memory.
+     *
+     * @param wrapped the stream returned by wrap, or null
+     */
+    void release(OutputStream wrapped) {
+        if (wrapped instanceof Compressor) {
+            ((Compressor) wrapped).end();
+        }
+    }
+
+    /**
+     * A compressing stream whose compressor can be released without finishing it.
+     */
+    private interface Compressor {
+        void end();
+    }
+
+    /**
+     * Gzip stream releasing its compressor once finished.
+     */
+    private static final class GzipStream extends GZIPOutputStream implements Compressor {
+
+        GzipStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+        }
+
+
+        @Override
+        public void finish() throws IOException {
+            super.finish();
+            def.end();
+        }
+
+
+        @Override
+        public void end() {
+            def.end();
+        }
+    }
+
+    /**
+     * Zlib stream releasing its compressor once finished.
+     */
+    private static final class ZlibStream extends DeflaterOutputStream implements Compressor {
+
+        ZlibStream(OutputStream out) {
+            super(out, new Deflater(), BUFFER_SIZE);
+        }
+
+
+        @Override
+        public void finish() throws IOException {
+            super.finish();
+            def.end();
+        }
+
+
+        @Override
+        public void end() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,563 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The Class XmlStreamDiff.
+ *
+ * Compares two XML documents made of keyed records, such as the inventories returned by two polls of the same server, in a single StAX pass over each. Records are
+ * the elements selected by a simple element path (see {@link SimpleXmlPath}) and are matched by the value of a key path inside them, for example
+ * {@code InstanceID} or an attribute such as {@code @id}. Each record is flattened to its leaf values, keyed by their path relative to the record, and records are
+ * reported as added, removed or changed through a listener as soon as they can be decided.
+ *
+ * Both documents are read in step and a record waits in a pending window until its counterpart is read, so memory is bounded by the window rather than by the
+ * documents. When the two documents list their records in a similar order the window stays nearly empty. When a record's counterpart is further away than the window
+ * allows, the oldest pending record is reported as removed or added early; {@link Summary#getWindowOverflowCount()} tells whether that happened.
+ */
+public final class XmlStreamDiff {
+    public static final int DEFAULT_WINDOW_SIZE = 1024;
+
+    private final SimpleXmlPath recordPath;
+    private final String keyPath;
+    private volatile int windowSize = DEFAULT_WINDOW_SIZE;
+
+    /**
+     * The kind of difference.
+     */
+    public enum ChangeType {
+
+        /** The record only exists in the second document. */
+        ADDED,
+
+        /** The record only exists in the first document. */
+        REMOVED,
+
+        /** The record exists in both documents with different values. */
+        CHANGED
+    }
+
+
+    /**
+     * Instantiates a new xml stream diff.
+     *
+     * @param recordPath the simple element path selecting the records, such as Inventory/Component
+     * @param keyPath the path of the key value inside a record, such as InstanceID or @id
+     */
+    public XmlStreamDiff(String recordPath, String keyPath) {
+        this.recordPath = new SimpleXmlPath(recordPath);
+        this.keyPath = keyPath;
+    }
+
+
+    /**
+     * Sets the maximum number of unmatched records held for each document.
+     *
+     * @param size the window size
+     * @return this diff
+     */
+    public XmlStreamDiff setWindowSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        this.windowSize = size;
+        return this;
+    }
+
+
+    /**
+     * Compares two xml streams, reporting each difference to the listener. The streams are not closed.
+     *
+     * @param before the first document
+     * @param after the second document
+     * @param listener the listener
+     * @return the summary
+     * @throws XMLStreamException the XML stream exception
+     */
+    public Summary diff(InputStream before, InputStream after, Consumer<Event> listener) throws XMLStreamException {
+        XMLStreamReader beforeReader = StaxFactories.getInputFactory().createXMLStreamReader(before);
+        try {
+            XMLStreamReader afterReader = StaxFactories.getInputFactory().createXMLStreamReader(after);
+            try {
+                return new Comparison(listener, windowSize).run(new RecordReader(beforeReader), new RecordReader(afterReader));
+            } finally {
+                afterReader.close();
+            }
+        } finally {
+            beforeReader.close();
+        }
+    }
+
+    /**
+     * Matches records from the two documents through their pending windows.
+     */
+    private static final class Comparison {
+        private final Consumer<Event> listener;
+        private final int window;
+        private final Map<String, Map<String, String>> pendingBefore = new LinkedHashMap<>();
+        private final Map<String, Map<String, String>> pendingAfter = new LinkedHashMap<>();
+        private long added;
+        private long removed;
+        private long changed;
+        private long unchanged;
+        private long overflows;
+
+
+        Comparison(Consumer<Event> listener, int window) {
+            this.listener = listener;
+            this.window = window;
+        }
+
+
+        Summary run(RecordReader before, RecordReader after) throws XMLStreamException {
+            boolean beforeDone = false;
+            boolean afterDone = false;
+            while (!beforeDone || !afterDone) {
+                if (!beforeDone) {
+                    if (before.next()) {
+                        accept(before, pendingBefore, pendingAfter, true);
+                    } else {
+                        beforeDone = true;
+                    }
+                }
+                if (!afterDone) {
+                    if (after.next()) {
+                        accept(after, pendingAfter, pendingBefore, false);
+                    } else {
+                        afterDone = true;
+                    }
+                }
+            }
+            for (Map.Entry<String, Map<String, String>> entry : pendingBefore.entrySet()) {
+                report(ChangeType.REMOVED, entry.getKey(), entry.getValue(), null);
+            }
+            for (Map.Entry<String, Map<String, String>> entry : pendingAfter.entrySet()) {
+                report(ChangeType.ADDED, entry.getKey(), null, entry.getValue());
+            }
+            return new Summary(added, removed, changed, unchanged, overflows);
+        }
+
+
+        /**
+         * Matches the record just read against the other document's window, or holds it in its own.
+         */
+        private void accept(RecordReader reader, Map<String, Map<String, String>> own, Map<String, Map<String, String>> other, boolean isBefore) {
+            String key = reader.getKey();
+            Map<String, String> values = reader.getValues();
+            Map<String, String> counterpart = other.remove(key);
+            if (counterpart != null) {
+                compare(key, isBefore ? values : counterpart, isBefore ? counterpart : values);
+                return;
+            }
+            Map<String, String> duplicate = own.remove(key);
+            if (duplicate != null) {
+                flush(key, duplicate, isBefore);
+            }
+            own.put(key, values);
+            if (own.size() > window) {
+                Iterator<Map.Entry<String, Map<String, String>>> eldest = own.entrySet().iterator();
+                Map.Entry<String, Map<String, String>> entry = eldest.next();
+                eldest.remove();
+                overflows++;
+                flush(entry.getKey(), entry.getValue(), isBefore);
+            }
+        }
+
+
+        private void flush(String key, Map<String, String> values, boolean isBefore) {
+            if (isBefore) {
+                report(ChangeType.REMOVED, key, values, null);
+            } else {
+                report(ChangeType.ADDED, key, null, values);
+            }
+        }
+
+
+        private void compare(String key, Map<String, String> before, Map<String, String> after) {
+            if (before.equals(after)) {
+                unchanged++;
+                return;
+            }
+            report(ChangeType.CHANGED, key, before, after);
+        }
+
+
+        private void report(ChangeType type, String key, Map<String, String> before, Map<String, String> after) {
+            switch (type) {
+            case ADDED:
+                added++;
+                break;
+            case REMOVED:
+                removed++;
+                break;
+            default:
+                changed++;
+                break;
+            }
+            listener.accept(new Event(type, key, before, after));
+        }
+    }
+
+    /**
+     * Reads the records of one document, flattening each to its leaf values.
+     */
+    private final class RecordReader {
+        private final XMLStreamReader reader;
+        private final List<QName> openElements = new ArrayList<>();
+        private long position;
+        private String key;
+        private Map<String, String> values;
+
+
+        RecordReader(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+
+        /**
+         * Advances to the next record.
+         *
+         * @return true, if a record was read
+         */
+        boolean next() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    openElements.add(reader.getName());
+                    if (recordPath.matches(openElements)) {
+                        values = readRecord();
+                        openElements.remove(openElements.size() - 1);
+                        position++;
+                        String value = values.get(keyPath);
+                        key = value != null ? value : "#" + position;
+                        return true;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    openElements.remove(openElements.size() - 1);
+                }
+            }
+            return false;
+        }
+
+
+        String getKey() {
+            return key;
+        }
+
+
+        Map<String, String> getValues() {
+            return values;
+        }
+
+
+        /**
+         * Flattens the current element into leaf paths and values, leaving the reader on its end tag. Repeated sibling elements are numbered from the second
+         * occurrence, as in Nic[2]/MAC.
+         */
+        private Map<String, String> readRecord() throws XMLStreamException {
+            Map<String, String> record = new LinkedHashMap<>();
+            Deque<Node> nodes = new ArrayDeque<>();
+            Node current = new Node("");
+            readAttributes(current.path, record);
+            while (true) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    current.hasChildren = true;
+                    String name = reader.getLocalName();
+                    int occurrence = current.childCounts.merge(name, 1, Integer::sum);
+                    String step = occurrence == 1 ? name : name + "[" + occurrence + "]";
+                    nodes.push(current);
+                    current = new Node(current.path.isEmpty() ? step : current.path + "/" + step);
+                    readAttributes(current.path, record);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (!current.hasChildren || !isBlank(current.text)) {
+                        record.put(current.path.isEmpty() ? "." : current.path, current.text.toString());
+                    }
+                    if (nodes.isEmpty()) {
+                        return record;
+                    }
+                    current = nodes.pop();
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                    current.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        }
+
+
+        private void readAttributes(String path, Map<String, String> record) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String name = "@" + reader.getAttributeLocalName(i);
+                record.put(path.isEmpty() ? name : path + "/" + name, reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    /**
+     * An open element inside a record.
+     */
+    private static final class Node {
+        private final String path;
+        private final StringBuilder text = new StringBuilder();
+        private final Map<String, Integer> childCounts = new HashMap<>();
+        private boolean hasChildren;
+
+
+        Node(String path) {
+            this.path = path;
+        }
+    }
+
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A record that was added, removed or changed.
+     */
+    public static final class Event {
+        private final ChangeType type;
+        private final String key;
+        private final Map<String, String> before;
+        private final Map<String, String> after;
+
+
+        Event(ChangeType type, String key, Map<String, String> before, Map<String, String> after) {
+            this.type = type;
+            this.key = key;
+            this.before = before != null ? Collections.unmodifiableMap(before) : Collections.<String, String> emptyMap();
+            this.after = after != null ? Collections.unmodifiableMap(after) : Collections.<String, String> emptyMap();
+        }
+
+
+        /**
+         * Gets the type.
+         *
+         * @return the type
+         */
+        public ChangeType getType() {
+            return type;
+        }
+
+
+        /**
+         * Gets the key of the record, or its position prefixed with # when the record has no key.
+         *
+         * @return the key
+         */
+        public String getKey() {
+            return key;
+        }
+
+
+        /**
+         * Gets the leaf values of the record in the first document.
+         *
+         * @return the values by path, empty for an added record
+         */
+        public Map<String, String> getBefore() {
+            return before;
+        }
+
+
+        /**
+         * Gets the leaf values of the record in the second document.
+         *
+         * @return the values by path, empty for a removed record
+         */
+        public Map<String, String> getAfter() {
+            return after;
+        }
+
+
+        /**
+         * Gets the leaf values that differ, with null standing for a value missing on one side.
+         *
+         * @return the changes, in document order
+         */
+        public List<ValueChange> getChanges() {
+            List<ValueChange> changes = new ArrayList<>();
+            for (Map.Entry<String, String> entry : before.entrySet()) {
+                String value = after.get(entry.getKey());
+                if (!Objects.equals(entry.getValue(), value)) {
+                    changes.add(new ValueChange(entry.getKey(), entry.getValue(), value));
+                }
+            }
+            for (Map.Entry<String, String> entry : after.entrySet()) {
+                if (!before.containsKey(entry.getKey())) {
+                    changes.add(new ValueChange(entry.getKey(), null, entry.getValue()));
+                }
+            }
+            return changes;
+        }
+
+
+        @Override
+        public String toString() {
+            return type + " " + key + (type == ChangeType.CHANGED ? " " + getChanges() : "");
+        }
+    }
+
+    /**
+     * A leaf value that differs between the two documents.
+     */
+    public static final class ValueChange {
+        private final String path;
+        private final String before;
+        private final String after;
+
+
+        ValueChange(String path, String before, String after) {
+            this.path = path;
+            this.before = before;
+            this.after = after;
+        }
+
+
+        /**
+         * Gets the path of the value relative to the record.
+         *
+         * @return the path
+         */
+        public String getPath() {
+            return path;
+        }
+
+
+        /**
+         * Gets the value in the first document.
+         *
+         * @return the value, or null if missing
+         */
+        public String getBefore() {
+            return before;
+        }
+
+
+        /**
+         * Gets the value in the second document.
+         *
+         * @return the value, or null if missing
+         */
+        public String getAfter() {
+            return after;
+        }
+
+
+        @Override
+        public String toString() {
+            return path + ": " + before + " -> " + after;
+        }
+    }
+
+    /**
+     * Counts of a completed comparison.
+     */
+    public static final class Summary {
+        private final long addedCount;
+        private final long removedCount;
+        private final long changedCount;
+        private final long unchangedCount;
+        private final long windowOverflowCount;
+
+
+        Summary(long addedCount, long removedCount, long changedCount, long unchangedCount, long windowOverflowCount) {
+            this.addedCount = addedCount;
+            this.removedCount = removedCount;
+            this.changedCount = changedCount;
+            this.unchangedCount = unchangedCount;
+            this.windowOverflowCount = windowOverflowCount;
+        }
+
+
+        /**
+         * Gets the number of added records.
+         *
+         * @return the added count
+         */
+        public long getAddedCount() {
+            return addedCount;
+        }
+
+
+        /**
+         * Gets the number of removed records.
+         *
+         * @return the removed count
+         */
+        public long getRemovedCount() {
+            return removedCount;
+        }
+
+
+        /**
+         * Gets the number of changed records.
+         *
+         * @return the changed count
+         */
+        public long getChangedCount() {
+            return changedCount;
+        }
+
+
+        /**
+         * Gets the number of records found unchanged in both documents.
+         *
+         * @return the unchanged count
+         */
+        public long getUnchangedCount() {
+            return unchangedCount;
+        }
+
+
+        /**
+         * Gets the number of records reported early because the pending window was full. When it is not zero, a record that moved further than the window may have
+         * been reported as removed and added instead of matched.
+         *
+         * @return the window overflow count
+         */
+        public long getWindowOverflowCount() {
+            return windowOverflowCount;
+        }
+
+
+        /**
+         * Checks if the documents have no differences.
+         *
+         * @return true, if there are no differences
+         */
+        public boolean isIdentical() {
+            return addedCount == 0 && removedCount == 0 && changedCount == 0;
+        }
+
+
+        @Override
+        public String toString() {
+            return "XmlStreamDiff.Summary [added=" + addedCount + ", removed=" + removedCount + ", changed=" + changedCount + ", unchanged=" + unchangedCount
+                    + ", windowOverflows=" + windowOverflowCount + "]";
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * The Class XmlToJsonConverter.
+ *
+ * Converts XML to JSON by translating StAX events into {@link JsonGenerator} events, without binding the document to objects. Memory use does not grow with the
+ * document: only the open elements and the text of the current element are held.
+ *
+ * An element is written as a string when it has neither attributes nor child elements, and as an object otherwise, with attributes as fields named with the attribute
+ * prefix and any text under the text key. Because the output is written as it is read, repeated elements are only grouped into a JSON array when their name is
+ * registered with {@link #setArrayElements(String...)}; those elements always produce an array, even when they occur once. Other repeated elements are written as
+ * repeated fields, as is text on both sides of a child element in mixed content. Element names are written according to the {@link NamespaceMode}.
+ *
+ * Configure a converter before sharing it; conversions on a configured converter are thread-safe.
+ */
+public final class XmlToJsonConverter {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * How element and attribute names are written.
+     */
+    public enum NamespaceMode {
+
+        /** Local name only, the default. */
+        LOCAL_NAME,
+
+        /** The prefix used in the document, followed by a colon and the local name. */
+        PREFIXED,
+
+        /** The namespace URI in braces followed by the local name. */
+        QUALIFIED
+    }
+
+    private volatile Set<String> arrayElements = Collections.emptySet();
+    private volatile String attributePrefix = "@";
+    private volatile String textKey = "#text";
+    private volatile boolean includeAttributes = true;
+    private volatile boolean includeRoot = true;
+    private volatile boolean prettyPrint;
+    private volatile NamespaceMode namespaceMode = NamespaceMode.LOCAL_NAME;
+
+
+    /**
+     * Sets the names of the elements that are written as JSON arrays, as they appear in the output.
+     *
+     * @param names the element names
+     * @return this converter
+     */
+    public XmlToJsonConverter setArrayElements(String... names) {
+        this.arrayElements = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+        return this;
+    }
+
+
+    /**
+     * Sets the prefix of fields holding attributes, "@" by default.
+     *
+     * @param prefix the prefix
+     * @return this converter
+     */
+    public XmlToJsonConverter setAttributePrefix(String prefix) {
+        this.attributePrefix = prefix;
+        return this;
+    }
+
+
+    /**
+     * Sets the name of the field holding the text of an element that also has attributes or children, "#text" by default.
+     *
+     * @param key the text key
+     * @return this converter
+     */
+    public XmlToJsonConverter setTextKey(String key) {
+        this.textKey = key;
+        return this;
+    }
+
+
+    /**
+     * Sets whether attributes are written, true by default.
+     *
+     * @param include true to write attributes
+     * @return this converter
+     */
+    public XmlToJsonConverter setIncludeAttributes(boolean include) {
+        this.includeAttributes = include;
+        return this;
+    }
+
+
+    /**
+     * Sets whether the output is wrapped in an object with the root element name, true by default.
+     *
+     * @param include true to wrap the root element
+     * @return this converter
+     */
+    public XmlToJsonConverter setIncludeRoot(boolean include) {
+        this.includeRoot = include;
+        return this;
+    }
+
+
+    /**
+     * Sets whether the output is indented, false by default.
+     *
+     * @param pretty true to indent
+     * @return this converter
+     */
+    public XmlToJsonConverter setPrettyPrint(boolean pretty) {
+        this.prettyPrint = pretty;
+        return this;
+    }
+
+
+    /**
+     * Sets how names are written, {@link NamespaceMode#LOCAL_NAME} by default.
+     *
+     * @param mode the namespace mode
+     * @return this converter
+     */
+    public XmlToJsonConverter setNamespaceMode(NamespaceMode mode) {
+        this.namespaceMode = mode;
+        return this;
+    }
+
+
+    /**
+     * Converts xml read from a stream to UTF-8 JSON written to a stream. Neither stream is closed.
+     *
+     * @param xml the xml input
+     * @param json the json output
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convert(InputStream xml, OutputStream json) throws XMLStreamException, IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(json, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            convert(xml, generator);
+        } finally {
+            generator.close();
+        }
+    }
+
+
+    /**
+     * Converts xml read from a reader to JSON written to a writer. The characters are used as they are, whatever encoding the xml declares. Neither is closed.
+     *
+     * @param xml the xml input
+     * @param json the json output
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convert(Reader xml, Writer json) throws XMLStreamException, IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(json);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            convert(StaxFactories.getInputFactory().createXMLStreamReader(xml), generator);
+        } finally {
+            generator.close();
+        }
+    }
+
+
+    /**
+     * Converts xml to a JSON string. The characters are used as they are, whatever encoding the xml declares.
+     *
+     * @param xml the xml
+     * @return the json
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public String convert(String xml) throws XMLStreamException, IOException {
+        StringWriter json = new StringWriter();
+        convert(new StringReader(xml), json);
+        return json.toString();
+    }
+
+
+    /**
+     * Converts xml read from a stream into events of the given generator, which is flushed but not closed.
+     *
+     * @param xml the xml input
+     * @param generator the generator
+     * @throws XMLStreamException the XML stream exception
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convert(InputStream xml, JsonGenerator generator) throws XMLStreamException, IOException {
+        convert(StaxFactories.getInputFactory().createXMLStreamReader(xml), generator);
+    }
+
+
+    private void convert(XMLStreamReader reader, JsonGenerator generator) throws XMLStreamException, IOException {
+        if (prettyPrint && generator.getPrettyPrinter() == null) {
+            generator.useDefaultPrettyPrinter();
+        }
+        try {
+            new Conversion(generator).run(reader);
+            generator.flush();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * An open element. Until its first attribute or child element it is pending, because it may still turn out to be a plain string.
+     */
+    private static final class Frame {
+        private final String name;
+        private final StringBuilder text = new StringBuilder();
+        private boolean object;
+        private String openArray;
+
+
+        Frame(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * State of a single conversion, taking a snapshot of the converter settings.
+     */
+    private final class Conversion {
+        private final JsonGenerator generator;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final Set<String> arrays = arrayElements;
+        private final String attributes = includeAttributes ? attributePrefix : null;
+        private final String text = textKey;
+        private final boolean root = includeRoot;
+        private final NamespaceMode mode = namespaceMode;
+
+
+        Conversion(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+
+        void run(XMLStreamReader reader) throws XMLStreamException, IOException {
+            if (root) {
+                generator.writeStartObject();
+            }
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement(reader);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    if (!frames.isEmpty()) {
+                        frames.peek().text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement(frames.pop());
+                    break;
+                default:
+                    break;
+                }
+            }
+            if (root) {
+                generator.writeEndObject();
+            }
+        }
+
+
+        private void startElement(XMLStreamReader reader) throws IOException {
+            String name = name(reader.getName());
+            Frame parent = frames.peek();
+            if (parent != null) {
+                startObject(parent);
+                if (parent.openArray != null && !parent.openArray.equals(name)) {
+                    generator.writeEndArray();
+                    parent.openArray = null;
+                }
+            }
+            if (parent != null || root) {
+                if (arrays.contains(name)) {
+                    if (parent == null || parent.openArray == null) {
+                        generator.writeFieldName(name);
+                        generator.writeStartArray();
+                        if (parent != null) {
+                            parent.openArray = name;
+                        }
+                    }
+                } else {
+                    generator.writeFieldName(name);
+                }
+            }
+
+            Frame frame = new Frame(name);
+            frames.push(frame);
+            if (attributes != null && reader.getAttributeCount() > 0) {
+                startObject(frame);
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    generator.writeStringField(attributes + name(reader.getAttributeName(i)), reader.getAttributeValue(i));
+                }
+            }
+        }
+
+
+        private void endElement(Frame frame) throws IOException {
+            if (frame.object) {
+                if (frame.openArray != null) {
+                    generator.writeEndArray();
+                    frame.openArray = null;
+                }
+                writeText(frame);
+                generator.writeEndObject();
+            } else {
+                generator.writeString(frame.text.toString());
+            }
+            if (frames.isEmpty() && root && arrays.contains(frame.name)) {
+                generator.writeEndArray();
+            }
+        }
+
+
+        /**
+         * Turns a pending element into an object, moving any text read so far under the text key.
+         */
+        private void startObject(Frame frame) throws IOException {
+            if (!frame.object) {
+                frame.object = true;
+                generator.writeStartObject();
+                writeText(frame);
+            }
+        }
+
+
+        private void writeText(Frame frame) throws IOException {
+            if (!isBlank(frame.text)) {
+                if (frame.openArray != null) {
+                    generator.writeEndArray();
+                    frame.openArray = null;
+                }
+                generator.writeStringField(text, frame.text.toString());
+            }
+            frame.text.setLength(0);
+        }
+
+
+        private String name(QName name) {
+            switch (mode) {
+            case PREFIXED:
+                return name.getPrefix().isEmpty() ? name.getLocalPart() : name.getPrefix() + ":" + name.getLocalPart();
+            case QUALIFIED:
+                return name.getNamespaceURI().isEmpty() ? name.getLocalPart() : "{" + name.getNamespaceURI() + "}" + name.getLocalPart();
+            default:
+                return name.getLocalPart();
+            }
+        }
+    }
+
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
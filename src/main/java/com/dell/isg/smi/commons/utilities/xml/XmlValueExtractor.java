@@ -0,0 +1,187 @@
+/**
+ * Copyright  2017 DELL Inc. or its subsidiaries.  All Rights Reserved.
+ */
+package com.dell.isg.smi.commons.utilities.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The Class XmlValueExtractor.
+ *
+ * Pulls the text of a few elements out of an XML document in a single forward StAX pass, without building a DOM. Each requested tag name or simple path (see
+ * {@link SimpleXmlPath}) yields the text directly contained by the first element it selects, and reading stops as soon as every requested value has been found.
+ */
+public final class XmlValueExtractor {
+
+    private XmlValueExtractor() {
+    }
+
+
+    /**
+     * Extracts the first value of each path from xml bytes.
+     *
+     * @param xml the xml
+     * @param paths the tag names or simple paths
+     * @return the value of each path that was found, in the order the paths were given
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static Map<String, String> extract(byte[] xml, Collection<String> paths) throws XMLStreamException {
+        return extract(new ByteArrayInputStream(xml), paths);
+    }
+
+
+    /**
+     * Extracts the first value of a single path from xml bytes.
+     *
+     * @param xml the xml
+     * @param path the tag name or simple path
+     * @return the value, or null if no element matched
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static String extract(byte[] xml, String path) throws XMLStreamException {
+        return extract(xml, Collections.singleton(path)).get(path);
+    }
+
+
+    /**
+     * Extracts the first value of each path from an xml stream. The stream is not closed and is left positioned wherever reading stopped.
+     *
+     * @param inputStream the input stream
+     * @param paths the tag names or simple paths
+     * @return the value of each path that was found, in the order the paths were given
+     * @throws XMLStreamException the XML stream exception
+     */
+    public static Map<String, String> extract(InputStream inputStream, Collection<String> paths) throws XMLStreamException {
+        List<SimpleXmlPath> pending = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            pending.add(new SimpleXmlPath(path));
+        }
+        Map<String, String> found = new LinkedHashMap<>();
+        for (String path : paths) {
+            found.put(path, null);
+        }
+
+        XMLStreamReader reader = StaxFactories.getInputFactory().createXMLStreamReader(inputStream);
+        try {
+            List<QName> elements = new ArrayList<>();
+            Deque<Capture> captures = new ArrayDeque<>();
+            while ((!pending.isEmpty() || !captures.isEmpty()) && reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    elements.add(reader.getName());
+                    List<SimpleXmlPath> matched = null;
+                    Iterator<SimpleXmlPath> it = pending.iterator();
+                    while (it.hasNext()) {
+                        SimpleXmlPath path = it.next();
+                        if (path.matches(elements)) {
+                            if (matched == null) {
+                                matched = new ArrayList<>();
+                            }
+                            matched.add(path);
+                            it.remove();
+                        }
+                    }
+                    if (matched != null) {
+                        if (mayMatchBelow(pending, elements)) {
+                            // keep walking the subtree for the other paths, collecting this element's text on the way
+                            captures.push(new Capture(matched, elements.size()));
+                        } else {
+                            String value = readDirectText(reader);
+                            elements.remove(elements.size() - 1);
+                            put(found, matched, value);
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    Capture capture = captures.peek();
+                    if (capture != null && capture.depth == elements.size()) {
+                        captures.pop();
+                        put(found, capture.paths, capture.text.toString());
+                    }
+                    elements.remove(elements.size() - 1);
+                } else if (isText(event)) {
+                    Capture capture = captures.peek();
+                    if (capture != null && capture.depth == elements.size()) {
+                        capture.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        found.values().removeIf(value -> value == null);
+        return found;
+    }
+
+
+    private static boolean mayMatchBelow(List<SimpleXmlPath> pending, List<QName> elements) {
+        for (SimpleXmlPath path : pending) {
+            if (path.mayMatchBelow(elements)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static void put(Map<String, String> found, List<SimpleXmlPath> paths, String value) {
+        for (SimpleXmlPath path : paths) {
+            found.put(path.getExpression(), value);
+        }
+    }
+
+
+    private static boolean isText(int event) {
+        return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE;
+    }
+
+
+    /**
+     * Reads the text directly contained by the current element, skipping its child elements, and leaves the reader on the element's end tag.
+     */
+    private static String readDirectText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1 && isText(event)) {
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * The direct text of a matched element whose subtree is still being walked.
+     */
+    private static final class Capture {
+        private final List<SimpleXmlPath> paths;
+        private final int depth;
+        private final StringBuilder text = new StringBuilder();
+
+
+        Capture(List<SimpleXmlPath> paths, int depth) {
+            this.paths = paths;
+            this.depth = depth;
+        }
+    }
+}